@@ -0,0 +1,133 @@
+package com.project.Fashion.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.Fashion.service.SparqlQueryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Declares the application caches explicitly so they exist at startup. That way the actuator binds
+ * hit/miss statistics for every cache (see /actuator/caches and /actuator/metrics/cache.gets).
+ * The productsList cache is a {@link ProductListCache}, which supports targeted invalidation.
+ * <p>
+ * Size bounds, expiry and statistics are configured per cache through {@link CacheConfigProperties}.
+ * With recordStats on, Micrometer publishes cache.gets (hit/miss), cache.puts, cache.evictions,
+ * cache.size and cache.load.duration for each cache.
+ * <p>
+ * Caches with a {@link CacheRegionLoader} bean are read-through loading caches: a miss is loaded on the
+ * calling thread and concurrent misses for the same key wait for that one load, while misses for other keys
+ * load in parallel. With refresh-after-write hot entries are reloaded on a small pool in the background while
+ * the old value is still served, so an expiring popular page does not send every request to the database at once.
+ */
+@Slf4j
+@Configuration
+public class CacheConfig implements DisposableBean {
+
+    public static final String PRODUCTS_LIST = "productsList";
+    public static final String SPARQL_RESULTS = "sparqlResults";
+
+    public static final List<String> CACHE_NAMES = List.of(PRODUCTS_LIST, "products", "productCategories",
+            "productPriceRange", "sellerProducts", "order", "user", SPARQL_RESULTS);
+
+    // Runs background refreshes of read-through caches, so a slow query cannot starve the common pool.
+    private ExecutorService refreshExecutor;
+
+    @Bean
+    public CacheManager cacheManager(CacheConfigProperties properties, List<CacheRegionLoader> loaders) {
+        Map<String, Function<Object, Object>> loadersByCache = new HashMap<>();
+        loaders.forEach(loader -> loadersByCache.put(loader.cacheName(), loader.loader()));
+        if (!loadersByCache.isEmpty()) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            refreshExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getRefreshThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "cache-refresh-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        Set<String> names = new LinkedHashSet<>(CACHE_NAMES);
+        names.addAll(properties.getRegions().keySet());
+
+        List<Cache> caches = new ArrayList<>();
+        for (String name : names) {
+            CacheConfigProperties.Region region = properties.resolve(name);
+            Function<Object, Object> loader = loadersByCache.get(name);
+            Caffeine<Object, Object> builder = caffeineBuilder(name, region, loader != null);
+            if (loader != null && region.getRefreshAfterWrite() != null) builder.executor(refreshExecutor);
+
+            if (PRODUCTS_LIST.equals(name)) {
+                caches.add(new ProductListCache(name, builder, loader));
+            } else if (loader != null) {
+                caches.add(new CaffeineCache(name, builder.build(loader::apply), false));
+            } else {
+                caches.add(new CaffeineCache(name, builder.build()));
+            }
+            log.info("Cache '{}': readThrough={}, maximumSize={}, maximumWeight={}, expireAfterWrite={}, expireAfterAccess={}, refreshAfterWrite={}, recordStats={}",
+                    name, loader != null, region.getMaximumSize(), region.getMaximumWeight(), region.getExpireAfterWrite(),
+                    region.getExpireAfterAccess(), loader != null ? region.getRefreshAfterWrite() : null, region.getRecordStats());
+        }
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) refreshExecutor.shutdownNow();
+    }
+
+    static Caffeine<Object, Object> caffeineBuilder(String name, CacheConfigProperties.Region region, boolean hasLoader) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (region.getMaximumWeight() != null) {
+            if (region.getMaximumSize() != null) {
+                log.warn("Cache '{}' has both maximumSize and maximumWeight; using maximumWeight.", name);
+            }
+            builder.maximumWeight(region.getMaximumWeight()).weigher((Object key, Object value) -> weigh(value));
+        } else if (region.getMaximumSize() != null) {
+            builder.maximumSize(region.getMaximumSize());
+        }
+        if (region.getExpireAfterWrite() != null) builder.expireAfterWrite(region.getExpireAfterWrite());
+        if (region.getExpireAfterAccess() != null) builder.expireAfterAccess(region.getExpireAfterAccess());
+        if (region.getRefreshAfterWrite() != null) {
+            if (hasLoader) {
+                builder.refreshAfterWrite(region.getRefreshAfterWrite());
+            } else {
+                log.warn("Cache '{}' has refreshAfterWrite but no loader; the setting is ignored.", name);
+            }
+        }
+        if (!Boolean.FALSE.equals(region.getRecordStats())) builder.recordStats();
+        return builder;
+    }
+
+    /**
+     * Rough weight of a cached value: 1 for the entry plus the number of items it holds, so a page of
+     * 50 products counts 50 times as much as a single product.
+     */
+    static int weigh(Object value) {
+        if (value instanceof Page<?> page) return 1 + page.getNumberOfElements();
+        if (value instanceof SparqlQueryService.SemanticSearchResult result) return 1 + result.rows().size();
+        if (value instanceof Collection<?> collection) return 1 + collection.size();
+        if (value instanceof Map<?, ?> map) return 1 + map.size();
+        return 1;
+    }
+}
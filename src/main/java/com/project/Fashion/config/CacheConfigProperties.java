@@ -0,0 +1,67 @@
+package com.project.Fashion.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache ("region") Caffeine settings, bound from {@code fashion.cache.*}:
+ * <pre>
+ * fashion.cache.defaults.maximum-size=1000
+ * fashion.cache.regions.products.maximum-size=10000
+ * fashion.cache.regions.products.expire-after-write=30m
+ * </pre>
+ * A region setting that is not given falls back to {@code fashion.cache.defaults}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "fashion.cache")
+public class CacheConfigProperties {
+
+    private Region defaults = new Region();
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    /** Threads that run the background refreshes of read-through caches; first loads run on the caller. */
+    private int refreshThreads = 4;
+
+    /**
+     * @return The settings of the named cache with unset values taken from the defaults.
+     */
+    public Region resolve(String cacheName) {
+        Region region = regions.getOrDefault(cacheName, new Region());
+        Region resolved = new Region();
+        // The size bound is taken as a whole, so a region with its own maximumWeight does not inherit a default maximumSize.
+        Region bound = region.getMaximumSize() != null || region.getMaximumWeight() != null ? region : defaults;
+        resolved.setMaximumSize(bound.getMaximumSize());
+        resolved.setMaximumWeight(bound.getMaximumWeight());
+        resolved.setExpireAfterWrite(region.getExpireAfterWrite() != null ? region.getExpireAfterWrite() : defaults.getExpireAfterWrite());
+        resolved.setExpireAfterAccess(region.getExpireAfterAccess() != null ? region.getExpireAfterAccess() : defaults.getExpireAfterAccess());
+        resolved.setRefreshAfterWrite(region.getRefreshAfterWrite() != null ? region.getRefreshAfterWrite() : defaults.getRefreshAfterWrite());
+        resolved.setRecordStats(region.getRecordStats() != null ? region.getRecordStats() : defaults.getRecordStats());
+        return resolved;
+    }
+
+    @Data
+    public static class Region {
+
+        /** Maximum number of entries. Ignored if maximumWeight is set. */
+        private Long maximumSize;
+
+        /** Maximum total weight; an entry weighs 1 plus the number of items it holds (page content, list size). */
+        private Long maximumWeight;
+
+        private Duration expireAfterWrite;
+
+        private Duration expireAfterAccess;
+
+        /** Only applies to caches with a {@link CacheRegionLoader}; others ignore it. */
+        private Duration refreshAfterWrite;
+
+        private Boolean recordStats;
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.Fashion.config;
+
+import java.util.function.Function;
+
+/**
+ * Loader for one cache region. Declaring one as a bean turns the named cache into a read-through cache
+ * (see {@link CacheConfig}): a miss runs the loader once per key while concurrent callers wait for the same
+ * result, and with {@code refresh-after-write} set, entries are reloaded in the background while the
+ * previous value keeps being served.
+ * <p>
+ * The loader receives the cache key, so the key must carry everything needed to compute the value, and it
+ * must not go through the cache itself (call the uncached method, not the {@code @Cacheable} one).
+ */
+public record CacheRegionLoader(String cacheName, Function<Object, Object> loader) {
+}
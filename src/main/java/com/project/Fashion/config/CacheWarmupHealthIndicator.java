@@ -0,0 +1,23 @@
+package com.project.Fashion.config;
+
+import com.project.Fashion.service.CacheWarmupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE while the caches are being pre-warmed after startup. Included in the readiness
+ * group (/actuator/health/readiness), so load balancers only route traffic to a warm instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmupService cacheWarmupService;
+
+    @Override
+    public Health health() {
+        return cacheWarmupService.isWarmedUp() ? Health.up().build() : Health.outOfService().withDetail("reason", "warming caches").build();
+    }
+}
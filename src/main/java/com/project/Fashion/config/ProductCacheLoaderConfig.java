@@ -0,0 +1,26 @@
+package com.project.Fashion.config;
+
+import com.project.Fashion.service.ProductListQuery;
+import com.project.Fashion.service.ProductService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Makes the two hottest product caches read-through. ProductService is looked up lazily because it
+ * depends on the cache manager these loaders are registered with.
+ */
+@Configuration
+public class ProductCacheLoaderConfig {
+
+    @Bean
+    public CacheRegionLoader productsCacheLoader(ObjectProvider<ProductService> productService) {
+        // A ProductNotFoundException propagates to the caller as the 404; nothing is cached.
+        return new CacheRegionLoader("products", key -> productService.getObject().loadProductById((Long) key));
+    }
+
+    @Bean
+    public CacheRegionLoader productsListCacheLoader(ObjectProvider<ProductService> productService) {
+        return new CacheRegionLoader(CacheConfig.PRODUCTS_LIST, key -> productService.getObject().loadProductsPage((ProductListQuery) key));
+    }
+}
@@ -0,0 +1,189 @@
+package com.project.Fashion.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.Fashion.dto.ProductResponseDto;
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.service.ProductListQuery;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Page;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache for product listing pages that tracks what every cached page depends on.
+ * <p>
+ * Each page is tagged with the ids of the products it shows and with the category it is filtered by
+ * (pages without a category filter share a wildcard tag). When a product changes, only the pages tagged
+ * with that product id or with its old/new category are looked at: pages showing the product are always
+ * evicted, the others only if their {@link ProductListQuery} says the change can alter membership or order.
+ * Tags are dropped when an entry is evicted, expires or is removed explicitly.
+ * <p>
+ * With a loader the cache is read-through: pages are loaded (and refreshed, if configured) by Caffeine,
+ * and the loader tags every page it produces.
+ */
+public class ProductListCache extends CaffeineCache {
+
+    private static final String ANY_CATEGORY = "*";
+
+    private final TagIndex tags;
+
+    public ProductListCache(String name, Caffeine<Object, Object> builder) {
+        this(name, builder, null);
+    }
+
+    /**
+     * @param loader Computes the page for a key; null for a plain cache filled by {@code put}.
+     */
+    public ProductListCache(String name, Caffeine<Object, Object> builder, Function<Object, Object> loader) {
+        this(name, builder, loader, new TagIndex());
+    }
+
+    private ProductListCache(String name, Caffeine<Object, Object> builder, Function<Object, Object> loader, TagIndex tags) {
+        // The eviction listener runs synchronously for size and expiry removals; explicit removals untrack in evict()/clear().
+        super(name, build(builder.evictionListener((key, value, cause) -> {
+            if (key != null) tags.untrack(key);
+        }), loader, tags), false);
+        this.tags = tags;
+    }
+
+    private static Cache<Object, Object> build(Caffeine<Object, Object> builder, Function<Object, Object> loader, TagIndex tags) {
+        if (loader == null) return builder.build();
+        return builder.build(key -> {
+            Object page = loader.apply(key);
+            tags.track(key, page);
+            return page;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        tags.track(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) tags.track(key, value);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        tags.untrack(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        tags.untrack(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        tags.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        tags.clear();
+        return invalidated;
+    }
+
+    /**
+     * Evicts the pages the change can affect and leaves every other page in place.
+     *
+     * @return The number of evicted pages.
+     */
+    public int evictAffectedBy(ProductChangedEvent event) {
+        Set<Object> showingProduct = tags.keysForProduct(event.productId());
+        Set<Object> sameCategory = tags.keysForCategory(ANY_CATEGORY);
+        sameCategory.addAll(tags.keysForCategory(categoryTag(event.before())));
+        sameCategory.addAll(tags.keysForCategory(categoryTag(event.after())));
+        sameCategory.removeAll(showingProduct);
+
+        int evicted = 0;
+        for (Object key : showingProduct) {
+            evict(key);
+            evicted++;
+        }
+        for (Object key : sameCategory) {
+            if (!(key instanceof ProductListQuery query) || query.isAffectedBy(event.before(), event.after())) {
+                evict(key);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private static String categoryTag(ProductSnapshot product) {
+        return product != null && product.category() != null ? product.category().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static final class TagIndex {
+        private final Map<Long, Set<Object>> keysByProduct = new ConcurrentHashMap<>();
+        private final Map<String, Set<Object>> keysByCategory = new ConcurrentHashMap<>();
+        private final Map<Object, Tags> tagsByKey = new ConcurrentHashMap<>();
+
+        private record Tags(Set<Long> productIds, String category) {
+        }
+
+        void track(Object key, Object value) {
+            Set<Long> productIds = new HashSet<>();
+            if (value instanceof Page<?> page) {
+                for (Object element : page.getContent()) {
+                    if (element instanceof ProductResponseDto dto && dto.getId() != null) productIds.add(dto.getId());
+                }
+            }
+            String category = key instanceof ProductListQuery query && query.categoryTag() != null ? query.categoryTag() : ANY_CATEGORY;
+            Tags previous = tagsByKey.put(key, new Tags(productIds, category));
+            if (previous != null) unlink(key, previous);
+            productIds.forEach(id -> keysByProduct.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(key));
+            keysByCategory.computeIfAbsent(category, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+
+        void untrack(Object key) {
+            Tags tags = tagsByKey.remove(key);
+            if (tags != null) unlink(key, tags);
+        }
+
+        void clear() {
+            tagsByKey.clear();
+            keysByProduct.clear();
+            keysByCategory.clear();
+        }
+
+        Set<Object> keysForProduct(Long productId) {
+            Set<Object> keys = productId != null ? keysByProduct.get(productId) : null;
+            return keys != null ? new HashSet<>(keys) : new HashSet<>();
+        }
+
+        Set<Object> keysForCategory(String category) {
+            Set<Object> keys = category != null ? keysByCategory.get(category) : null;
+            return keys != null ? new HashSet<>(keys) : new HashSet<>();
+        }
+
+        private void unlink(Object key, Tags tags) {
+            for (Long id : tags.productIds()) {
+                keysByProduct.computeIfPresent(id, (k, keys) -> without(keys, key));
+            }
+            keysByCategory.computeIfPresent(tags.category(), (k, keys) -> without(keys, key));
+        }
+
+        private static Set<Object> without(Set<Object> keys, Object key) {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        }
+    }
+}
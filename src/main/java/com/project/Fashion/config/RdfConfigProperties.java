@@ -3,6 +3,8 @@ package com.project.Fashion.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 public class RdfConfigProperties {
 
@@ -14,6 +16,26 @@ public class RdfConfigProperties {
     @Value("${fashion.data.base-uri:http://fashion.example.com/data/}")
     private String dataBaseUri;
 
+    // "memory" rebuilds the product graph from the database at every start; "tdb2" keeps it on disk
+    @Value("${fashion.rdf.store.mode:memory}")
+    private String storeMode;
+
+    // Directory of the TDB2 dataset (tdb2 mode only)
+    @Value("${fashion.rdf.store.location:data/rdf}")
+    private String storeLocation;
+
+    // The sync watermark is set this far before the sync started, so writes committing during a sync are not missed
+    @Value("${fashion.rdf.store.sync-overlap:1m}")
+    private Duration syncOverlap;
+
+    // How long product deletions are recorded; a store not synchronized for longer compares all product IDs instead
+    @Value("${fashion.rdf.store.deletion-retention:30d}")
+    private Duration deletionRetention;
+
+    // Threads converting products to RDF when loading the store in bulk; 0 means one per processor
+    @Value("${fashion.rdf.store.conversion-threads:0}")
+    private int conversionThreads;
+
     public String getOntologyBaseUri() {
         return ontologyBaseUri;
     }
@@ -42,4 +64,24 @@ public class RdfConfigProperties {
     public String getUserUriPrefix() { // For reviewers
         return dataBaseUri + "user/";
     }
+
+    public boolean isPersistentStore() {
+        return "tdb2".equalsIgnoreCase(storeMode);
+    }
+
+    public String getStoreLocation() {
+        return storeLocation;
+    }
+
+    public Duration getSyncOverlap() {
+        return syncOverlap;
+    }
+
+    public Duration getDeletionRetention() {
+        return deletionRetention;
+    }
+
+    public int getConversionThreads() {
+        return conversionThreads > 0 ? conversionThreads : Runtime.getRuntime().availableProcessors();
+    }
 }
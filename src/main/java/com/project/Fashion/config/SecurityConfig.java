@@ -66,7 +66,7 @@ public class SecurityConfig {
                         ).permitAll()
                         // PUBLIC ENDPOINTS
                         .requestMatchers("/api/users/register", "/api/users/login").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/products", "/api/products/{id:[0-9]+}", "/api/products/image/**", "/api/products/categories", "/api/products/price-range-meta").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/products", "/api/products/scroll", "/api/products/suggest", "/api/products/batch", "/api/products/{id:[0-9]+}", "/api/products/image/**", "/api/products/categories", "/api/products/price-range-meta").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/reviews/product/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/deliveries", "/api/deliveries/**").permitAll()
                         .requestMatchers("/ws/**").permitAll()
@@ -81,8 +81,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PATCH, "/api/users/{id}").hasAnyRole("ADMIN") // Or @userSecurity.isOwner
                         .requestMatchers(HttpMethod.DELETE, "/api/users/{id}").hasRole("ADMIN")
                         // PRODUCT MANAGEMENT
-                        .requestMatchers(HttpMethod.POST, "/api/products").hasRole("SELLER")
-                        .requestMatchers(HttpMethod.GET, "/api/products/seller/me").hasRole("SELLER") // Seller's own products
+                        .requestMatchers(HttpMethod.POST, "/api/products", "/api/products/import").hasRole("SELLER")
+                        .requestMatchers(HttpMethod.GET, "/api/products/seller/me", "/api/products/seller/me/scroll", "/api/products/seller/me/export").hasRole("SELLER") // Seller's own products
                         .requestMatchers(HttpMethod.PUT, "/api/products/{id:[0-9]+}").hasRole("SELLER") // Ownership checked by @productSecurity
                         .requestMatchers(HttpMethod.DELETE, "/api/products/{id:[0-9]+}").hasAnyRole("SELLER", "ADMIN") // Ownership checked by @productSecurity for SELLER
                         .requestMatchers(HttpMethod.POST, "/api/products/{id:[0-9]+}/image").hasRole("SELLER") // Ownership checked
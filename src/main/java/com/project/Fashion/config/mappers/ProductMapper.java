@@ -4,17 +4,19 @@ import com.project.Fashion.dto.ProductCreateDto;
 import com.project.Fashion.dto.ProductResponseDto;
 import com.project.Fashion.dto.ProductUpdateDto;
 import com.project.Fashion.model.Product;
+import com.project.Fashion.service.ImageVariant;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", imports = ImageVariant.class)
 public interface ProductMapper {
 
     // Maps a Product entity to the detailed response DTO
     @Mapping(source = "seller.id", target = "sellerId")
     @Mapping(expression = "java(product.getSeller().getFirstName() + \" \" + product.getSeller().getLastName())", target = "sellerName")
     @Mapping(source = "seller.email", target = "sellerEmail")
+    @Mapping(expression = "java(ImageVariant.urlsFor(product.getPhotoUrl()))", target = "imageVariants")
     ProductResponseDto toProductResponseDto(Product product);
 
     // Maps the creation DTO to a new Product entity
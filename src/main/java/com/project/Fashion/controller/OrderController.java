@@ -1,6 +1,7 @@
 package com.project.Fashion.controller;
 
 import com.project.Fashion.dto.CheckOutRequestDto;
+import com.project.Fashion.dto.KeysetSliceDto;
 import com.project.Fashion.dto.OrderRequestDto;
 import com.project.Fashion.dto.OrderResponseDto;
 import com.project.Fashion.model.*;
@@ -152,6 +153,27 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @Operation(summary = "Scroll through the authenticated buyer's orders with a cursor (Buyer only)",
+            description = "Keyset-paginated variant of GET /api/orders/user/me. Pass the nextCursor of a slice as 'after' to fetch the following slice.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a slice of buyer's orders"),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor, or cursor issued for a different sort order"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden (User is not a BUYER)")
+    })
+    @GetMapping("/user/me/scroll")
+    @PreAuthorize("hasRole('BUYER')")
+    public ResponseEntity<KeysetSliceDto<OrderResponseDto>> scrollMyOrders(
+            @Parameter(description = "Number of items per slice (max 100)", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Field to sort by (date, total, id). Default: date.", example = "date") @RequestParam(required = false, defaultValue = "date") String sortBy,
+            @Parameter(description = "Sort direction (ASC or DESC). Default: DESC.", example = "DESC") @RequestParam(required = false, defaultValue = "DESC") String sortDir,
+            @Parameter(description = "Cursor returned as nextCursor by the previous slice; omit for the first slice.") @RequestParam(required = false) String after) {
+        User authenticatedUser = getAuthenticatedUserFromSecurityContext();
+        KeysetSliceDto<OrderResponseDto> orders = orderService.scrollOrdersByUserId(authenticatedUser.getId(), size, sortBy, sortDir, after);
+        return ResponseEntity.ok(orders);
+    }
+
     @Operation(summary = "Get orders for the authenticated seller (Seller only)",
             description = "Retrieves a paginated list of orders containing products sold by the currently authenticated SELLER. Supports sorting.",
             security = @SecurityRequirement(name = "bearerAuth"))
@@ -167,6 +189,26 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @Operation(summary = "Scroll through the authenticated seller's orders with a cursor (Seller only)",
+            description = "Keyset-paginated variant of GET /api/orders/seller/me. Pass the nextCursor of a slice as 'after' to fetch the following slice.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a slice of seller's orders"),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor, or cursor issued for a different sort order"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized (Token missing or invalid)"),
+            @ApiResponse(responseCode = "403", description = "Forbidden (User is not a SELLER)")
+    })
+    @GetMapping("/seller/me/scroll")
+    @PreAuthorize("hasRole('SELLER')")
+    public ResponseEntity<KeysetSliceDto<OrderResponseDto>> scrollMyOrdersAsSeller(
+            @Parameter(description = "Number of items per slice (max 100)", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Field to sort by (date, total, id). Default: date.", example = "date") @RequestParam(required = false, defaultValue = "date") String sortBy,
+            @Parameter(description = "Sort direction (ASC or DESC). Default: DESC.", example = "DESC") @RequestParam(required = false, defaultValue = "DESC") String sortDir,
+            @Parameter(description = "Cursor returned as nextCursor by the previous slice; omit for the first slice.") @RequestParam(required = false) String after) {
+        KeysetSliceDto<OrderResponseDto> orders = orderService.scrollOrdersForAuthenticatedSeller(size, sortBy, sortDir, after);
+        return ResponseEntity.ok(orders);
+    }
+
     @Operation(summary = "Get sales statistics for the authenticated seller",
             description = "Retrieves total sales figures for the currently authenticated SELLER based on paid orders.",
             security = @SecurityRequirement(name = "bearerAuth"))
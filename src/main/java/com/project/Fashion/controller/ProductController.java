@@ -1,10 +1,22 @@
 package com.project.Fashion.controller;
 
+import com.project.Fashion.dto.FacetedPage;
+import com.project.Fashion.dto.KeysetSliceDto;
 import com.project.Fashion.dto.ProductCreateDto;
+import com.project.Fashion.dto.ProductImportReportDto;
 import com.project.Fashion.dto.ProductResponseDto;
+import com.project.Fashion.dto.ProductSuggestionDto;
 import com.project.Fashion.dto.ProductPriceRangeDto;
 import com.project.Fashion.dto.ProductUpdateDto;
+import com.project.Fashion.service.CacheWarmupService;
+import com.project.Fashion.service.CatalogVersionService;
+import com.project.Fashion.service.ImageVariant;
+import com.project.Fashion.service.ProductImageService;
+import com.project.Fashion.service.ProductImageVariantService;
+import com.project.Fashion.service.ProductImportService;
+import com.project.Fashion.service.ProductListQuery;
 import com.project.Fashion.service.ProductService;
+import com.project.Fashion.service.ProductSuggestService;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,22 +29,27 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.springframework.http.MediaType.IMAGE_JPEG_VALUE;
 import static org.springframework.http.MediaType.IMAGE_PNG_VALUE;
@@ -44,7 +61,30 @@ import static org.springframework.http.MediaType.IMAGE_PNG_VALUE;
 public class ProductController {
 
     private final ProductService productService;
-    private static final String PHOTO_DIRECTORY = "src/main/resources/static/uploads/products/";
+    private final ProductSuggestService productSuggestService;
+    private final CatalogVersionService catalogVersionService;
+    private final ProductImportService productImportService;
+    private final CacheWarmupService cacheWarmupService;
+    private final ProductImageService productImageService;
+    private final ProductImageVariantService productImageVariantService;
+    // Browsers and proxies may reuse catalog responses briefly, then revalidate with If-None-Match.
+    private static final CacheControl BROWSE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+    private static final CacheControl METADATA_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+    private static final CacheControl IMAGE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    // Served in place of a resized copy that is still being created, so clients soon ask again.
+    private static final CacheControl PENDING_VARIANT_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
+    /**
+     * Answers a conditional GET from the catalog version alone: if the client's If-None-Match still
+     * matches, a 304 is returned without calling the service or serializing anything.
+     */
+    private <T> ResponseEntity<T> withCatalogETag(WebRequest webRequest, CacheControl cacheControl, Supplier<T> body) {
+        String eTag = catalogVersionService.currentETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body.get());
+    }
 
     @Operation(summary = "Create a new product (Seller only)",
             description = "Allows an authenticated SELLER to create a new product listing. The seller ID from the DTO will be overridden by the authenticated seller's ID.",
@@ -66,28 +106,90 @@ public class ProductController {
     }
 
     @Operation(summary = "Get a paginated list of products (Public)",
-            description = "Retrieves a list of products with filtering, sorting, and pagination options. Available to all users.")
+            description = "Retrieves a list of products with filtering, sorting, and pagination options. Available to all users. " +
+                    "The response also contains 'facets': category counts, price and rating histograms over all products matching the filters.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
-                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = Page.class))),
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = FacetedPage.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid pagination or filter parameters"),
             @ApiResponse(responseCode = "429", description = "Too many requests (Rate limit exceeded)")
     })
     @GetMapping
     @RateLimiter(name = "defaultApiService")
     public ResponseEntity<Page<ProductResponseDto>> getProducts(
+            WebRequest webRequest,
             @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page", example = "10") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Filter by product category (case-insensitive)", example = "Dress") @RequestParam(required = false) String category,
-            @Parameter(description = "Search term for product name or description (case-insensitive)", example = "summer") @RequestParam(required = false) String searchTerm,
+            @Parameter(description = "Full-text search over product name, description and category (case-insensitive)", example = "summer") @RequestParam(required = false) String searchTerm,
+            @Parameter(description = "Minimum price filter", example = "100.00") @RequestParam(required = false) Float minPrice,
+            @Parameter(description = "Maximum price filter", example = "1000.00") @RequestParam(required = false) Float maxPrice,
+            @Parameter(description = "Minimum average rating filter (1-5)", example = "4.0") @RequestParam(required = false) Float minRating,
+            @Parameter(description = "Filter for products with no reviews", example = "true") @RequestParam(required = false) Boolean noReviews,
+            @Parameter(description = "Field to sort by (name, price, averageRating, id, relevance). 'relevance' ranks by search score and requires a searchTerm.", example = "price") @RequestParam(required = false, defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction (ASC or DESC). Ignored for relevance, which is always best match first.", example = "DESC") @RequestParam(required = false, defaultValue = "ASC") String sortDir) {
+        cacheWarmupService.recordListing(new ProductListQuery(page, size, category, searchTerm, minPrice, maxPrice, minRating, noReviews, sortBy, sortDir));
+        return withCatalogETag(webRequest, BROWSE_CACHE_CONTROL,
+                () -> productService.getAllProducts(page, size, category, searchTerm, minPrice, maxPrice, minRating, noReviews, sortBy, sortDir));
+    }
+
+    @Operation(summary = "Scroll through products with a cursor (Public)",
+            description = "Keyset-paginated variant of the product list for infinite scrolling. Accepts the same filters as GET /api/products. " +
+                    "Pass the nextCursor of a slice as 'after' to fetch the following slice; the cost per slice does not grow with depth. " +
+                    "Relevance sorting is not supported here.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a slice of products",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = KeysetSliceDto.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor, or cursor issued for a different sort order"),
+            @ApiResponse(responseCode = "429", description = "Too many requests (Rate limit exceeded)")
+    })
+    @GetMapping("/scroll")
+    @RateLimiter(name = "defaultApiService")
+    public ResponseEntity<KeysetSliceDto<ProductResponseDto>> scrollProducts(
+            @Parameter(description = "Number of items per slice (max 100)", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Filter by product category (case-insensitive)", example = "Dress") @RequestParam(required = false) String category,
+            @Parameter(description = "Full-text search over product name, description and category (case-insensitive)", example = "summer") @RequestParam(required = false) String searchTerm,
             @Parameter(description = "Minimum price filter", example = "100.00") @RequestParam(required = false) Float minPrice,
             @Parameter(description = "Maximum price filter", example = "1000.00") @RequestParam(required = false) Float maxPrice,
             @Parameter(description = "Minimum average rating filter (1-5)", example = "4.0") @RequestParam(required = false) Float minRating,
             @Parameter(description = "Filter for products with no reviews", example = "true") @RequestParam(required = false) Boolean noReviews,
-            @Parameter(description = "Field to sort by (name, price, averageRating, id)", example = "price") @RequestParam(required = false, defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction (ASC or DESC)", example = "DESC") @RequestParam(required = false, defaultValue = "ASC") String sortDir) {
-        Page<ProductResponseDto> productPage = productService.getAllProducts(page, size, category, searchTerm, minPrice, maxPrice, minRating, noReviews, sortBy, sortDir);
-        return ResponseEntity.ok(productPage);
+            @Parameter(description = "Field to sort by (name, price, averageRating, id). Default: name.", example = "price") @RequestParam(required = false, defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction (ASC or DESC). Default: ASC.", example = "DESC") @RequestParam(required = false, defaultValue = "ASC") String sortDir,
+            @Parameter(description = "Cursor returned as nextCursor by the previous slice; omit for the first slice.") @RequestParam(required = false) String after) {
+        KeysetSliceDto<ProductResponseDto> slice = productService.scrollProducts(size, category, searchTerm, minPrice, maxPrice, minRating, noReviews, sortBy, sortDir, after);
+        return ResponseEntity.ok(slice);
+    }
+
+    @Operation(summary = "Suggest products and categories while typing (Public)",
+            description = "Typeahead suggestions for a partial query. Each word is matched as a prefix of product name words; " +
+                    "misspelled words are matched approximately. Products are ranked by match quality, average rating and number of reviews.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions, best first (empty if nothing matches)",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = ProductSuggestionDto.class))))
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDto>> suggestProducts(
+            @Parameter(description = "Text typed so far", example = "flor dre") @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of suggestions (max 20)", example = "8") @RequestParam(defaultValue = "" + ProductSuggestService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(productSuggestService.suggest(query, limit));
+    }
+
+    @Operation(summary = "Get several products by ID in one request (Public)",
+            description = "Returns the products for a comma-separated list of IDs in the requested order, e.g. for cart, favorites or search result cards. " +
+                    "Unknown IDs are skipped and duplicates are returned once. At most " + ProductService.MAX_BATCH_SIZE + " IDs per request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products found, in request order",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = ProductResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Too many IDs or a malformed ID"),
+            @ApiResponse(responseCode = "429", description = "Too many requests (Rate limit exceeded)")
+    })
+    @GetMapping("/batch")
+    @RateLimiter(name = "defaultApiService")
+    public ResponseEntity<List<ProductResponseDto>> getProductsBatch(
+            @Parameter(description = "Comma-separated product IDs", example = "3,1,7") @RequestParam List<Long> ids) {
+        cacheWarmupService.recordProducts(ids);
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     @Operation(summary = "Get a specific product by ID (Public)",
@@ -95,13 +197,16 @@ public class ProductController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved product details",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Product not found"),
             @ApiResponse(responseCode = "429", description = "Too many requests (Rate limit exceeded)")
     })
     @GetMapping("/{id}")
     @RateLimiter(name = "defaultApiService")
-    public ResponseEntity<ProductResponseDto> getProduct(@Parameter(description = "ID of the product to retrieve", example = "1") @PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductResponseDto> getProduct(@Parameter(description = "ID of the product to retrieve", example = "1") @PathVariable Long id,
+                                                         WebRequest webRequest) {
+        cacheWarmupService.recordProducts(List.of(id));
+        return withCatalogETag(webRequest, BROWSE_CACHE_CONTROL, () -> productService.getProductById(id));
     }
 
     @Operation(summary = "Update an existing product (Seller only, Owner only)",
@@ -167,30 +272,55 @@ public class ProductController {
     }
 
     @Operation(summary = "Get a product image (Public)",
-            description = "Retrieves the image file for a product by its filename. The filename is usually part of the `photoUrl` in the ProductResponseDto. Supports PNG and JPEG formats.")
+            description = "Retrieves the image file for a product by its filename. The filename is usually part of the `photoUrl` in the ProductResponseDto. Supports PNG and JPEG formats. " +
+                    "With `size` (thumbnail, card or detail) a resized JPEG copy is returned; the URLs are listed in `imageVariants`. Right after an upload the copy may not exist yet, " +
+                    "in which case the original is returned with a short cache lifetime. " +
+                    "Images are streamed, support Range requests, and carry a strong ETag and Last-Modified for conditional requests (If-None-Match, If-Modified-Since). " +
+                    "Uploaded filenames are unique, so responses may be cached for a year.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Image retrieved successfully",
                     content = {@Content(mediaType = IMAGE_PNG_VALUE), @Content(mediaType = IMAGE_JPEG_VALUE)}),
-            @ApiResponse(responseCode = "400", description = "Unsupported image type requested (if filename doesn't end with .png, .jpg, .jpeg)"),
-            @ApiResponse(responseCode = "404", description = "Image file not found on server")
+            @ApiResponse(responseCode = "206", description = "Requested byte range(s) of the image"),
+            @ApiResponse(responseCode = "304", description = "Image not modified since the client's cached copy"),
+            @ApiResponse(responseCode = "400", description = "Unsupported image type requested (if filename doesn't end with .png, .jpg, .jpeg) or unknown size"),
+            @ApiResponse(responseCode = "404", description = "Image file not found on server"),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
     })
     @GetMapping(path = "/image/{filename:.+}", produces = {IMAGE_PNG_VALUE, IMAGE_JPEG_VALUE})
-    public ResponseEntity<byte[]> getImage(@Parameter(description = "Filename of the image (e.g., product_1_image.png)", example = "product_1_timestamp_image.png") @PathVariable("filename") String filename) throws IOException {
-        Path imagePath = Paths.get(PHOTO_DIRECTORY, filename);
-        if (!Files.exists(imagePath) || Files.isDirectory(imagePath)) {
+    public ResponseEntity<Resource> getImage(@Parameter(description = "Filename of the image (e.g., product_1_image.png)", example = "product_1_timestamp_image.png") @PathVariable("filename") String filename,
+                                             @Parameter(description = "Resized copy to return: thumbnail (160px), card (480px) or detail (1200px). Omit for the original.", example = "card") @RequestParam(value = "size", required = false) String size,
+                                             WebRequest webRequest) throws IOException {
+        MediaType contentType = ProductImageService.contentTypeOf(filename);
+        if (contentType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        CacheControl cacheControl = IMAGE_CACHE_CONTROL;
+        ProductImageService.ImageFile image = null;
+        if (size != null) {
+            String variantFilename = ImageVariant.fromName(size).fileNameFor(filename);
+            image = productImageService.find(variantFilename, MediaType.IMAGE_JPEG).orElse(null);
+            if (image == null) {
+                productImageVariantService.submit(filename);
+                cacheControl = PENDING_VARIANT_CACHE_CONTROL;
+            }
+        }
+        if (image == null) {
+            image = productImageService.find(filename, contentType).orElse(null);
+        }
+        if (image == null) {
             return ResponseEntity.notFound().build();
         }
-        byte[] imageBytes = Files.readAllBytes(imagePath);
-        MediaType contentType;
-        String lowerFilename = filename.toLowerCase();
-        if (lowerFilename.endsWith(".png")) {
-            contentType = MediaType.IMAGE_PNG;
-        } else if (lowerFilename.endsWith(".jpg") || lowerFilename.endsWith(".jpeg")) {
-            contentType = MediaType.IMAGE_JPEG;
-        } else {
-            return ResponseEntity.badRequest().body("Unsupported image type".getBytes());
+        if (webRequest.checkNotModified(image.eTag(), image.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(image.eTag()).lastModified(image.lastModified()).cacheControl(cacheControl).build();
         }
-        return ResponseEntity.ok().contentType(contentType).body(imageBytes);
+        // Range headers are answered by Spring MVC from the Resource body (206 with resource regions, or 416).
+        return ResponseEntity.ok()
+                .contentType(image.contentType())
+                .eTag(image.eTag())
+                .lastModified(image.lastModified())
+                .cacheControl(cacheControl)
+                .body(image.resource());
     }
 
     @Operation(summary = "Get products listed by the authenticated seller (Seller only)",
@@ -224,28 +354,93 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @Operation(summary = "Scroll through the authenticated seller's products with a cursor (Seller only)",
+            description = "Keyset-paginated variant of GET /api/products/seller/me. Pass the nextCursor of a slice as 'after' to fetch the following slice.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a slice of the seller's products",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = KeysetSliceDto.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor, or cursor issued for a different sort order"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized (Token missing or invalid)"),
+            @ApiResponse(responseCode = "403", description = "Forbidden (User is not a SELLER)")
+    })
+    @GetMapping("/seller/me/scroll")
+    @PreAuthorize("hasRole('SELLER')")
+    public ResponseEntity<KeysetSliceDto<ProductResponseDto>> scrollMyProducts(
+            @Parameter(description = "Number of items per slice (max 100)", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Field to sort by (e.g., name, price, averageRating, id). Default: name.", example = "name") @RequestParam(required = false, defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction (ASC or DESC). Default: ASC.", example = "ASC") @RequestParam(required = false, defaultValue = "ASC") String sortDir,
+            @Parameter(description = "Cursor returned as nextCursor by the previous slice; omit for the first slice.") @RequestParam(required = false) String after
+    ) {
+        KeysetSliceDto<ProductResponseDto> slice = productService.scrollProductsByAuthenticatedSeller(size, sortBy, sortDir, after);
+        return ResponseEntity.ok(slice);
+    }
+
+    @Operation(summary = "Bulk import products (Seller only)",
+            description = "Creates many products for the authenticated SELLER from an NDJSON (one ProductCreateDto per line) or CSV " +
+                    "(header with name, description, price, category, stock) request body. The body is read as a stream and rows are " +
+                    "stored in batches; invalid rows are skipped and listed in the report with their row number.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductImportReportDto.class))),
+            @ApiResponse(responseCode = "400", description = "Unsupported content type or CSV header without the required columns"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized (Token missing or invalid)"),
+            @ApiResponse(responseCode = "403", description = "Forbidden (User is not a SELLER)")
+    })
+    @PostMapping(value = "/import", consumes = {ProductImportService.APPLICATION_NDJSON_VALUE, ProductImportService.TEXT_CSV_VALUE})
+    @PreAuthorize("hasRole('SELLER')")
+    public ResponseEntity<ProductImportReportDto> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        ProductImportReportDto report = productImportService.importProducts(body, ProductImportService.Format.fromMediaType(contentType));
+        return ResponseEntity.ok(report);
+    }
+
+    @Operation(summary = "Export the authenticated seller's products (Seller only)",
+            description = "Streams all products of the authenticated SELLER, ordered by ID, as NDJSON or CSV. " +
+                    "The CSV columns are a superset of the import columns, so an export can be edited and imported elsewhere.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The seller's products"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized (Token missing or invalid)"),
+            @ApiResponse(responseCode = "403", description = "Forbidden (User is not a SELLER)")
+    })
+    @GetMapping("/seller/me/export")
+    @PreAuthorize("hasRole('SELLER')")
+    public ResponseEntity<StreamingResponseBody> exportMyProducts(
+            @Parameter(description = "Output format: ndjson or csv", example = "csv") @RequestParam(defaultValue = "ndjson") String format) {
+        ProductImportService.Format exportFormat = ProductImportService.Format.fromName(format);
+        boolean csv = exportFormat == ProductImportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? ProductImportService.TEXT_CSV_VALUE + ";charset=UTF-8" : ProductImportService.APPLICATION_NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + (csv ? "csv" : "ndjson") + "\"")
+                .body(productImportService.exportAuthenticatedSellerProducts(exportFormat));
+    }
+
     @Operation(summary = "Get distinct product categories (Public)",
             description = "Retrieves a list of all unique product category names available in the store, sorted alphabetically.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved distinct categories",
-                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(type = "string", example = "Jacket"))))
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(type = "string", example = "Jacket")))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
     })
     @GetMapping("/categories")
-    public ResponseEntity<List<String>> getDistinctCategories() {
-        List<String> categories = productService.getDistinctCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<String>> getDistinctCategories(WebRequest webRequest) {
+        return withCatalogETag(webRequest, METADATA_CACHE_CONTROL, productService::getDistinctCategories);
     }
 
     @Operation(summary = "Get product price range metadata (Public)",
             description = "Retrieves the overall minimum and maximum prices of products currently available in the store. Useful for price range filters.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved product price range",
-                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductPriceRangeDto.class)))
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductPriceRangeDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
     })
     @GetMapping("/price-range-meta")
-    public ResponseEntity<ProductPriceRangeDto> getProductPriceRange() {
-        ProductPriceRangeDto priceRange = productService.getProductPriceRange();
-        return ResponseEntity.ok(priceRange);
+    public ResponseEntity<ProductPriceRangeDto> getProductPriceRange(WebRequest webRequest) {
+        return withCatalogETag(webRequest, METADATA_CACHE_CONTROL, productService::getProductPriceRange);
     }
 
     @Operation(summary = "Perform a semantic search for products (Public)",
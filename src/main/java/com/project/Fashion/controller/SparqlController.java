@@ -1,6 +1,8 @@
 package com.project.Fashion.controller;
 
+import com.project.Fashion.exception.exceptions.InvalidFieldException;
 import com.project.Fashion.service.SparqlQueryService;
+import com.project.Fashion.service.SparqlResultFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,13 +11,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.apache.jena.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/sparql")
@@ -72,34 +80,51 @@ public class SparqlController {
         }
     }
 
-    @Operation(summary = "Execute a custom SPARQL SELECT query (Admin/Dev only - use with caution)",
-            description = "Allows execution of an arbitrary SPARQL SELECT query. " +
+    @Operation(summary = "Execute a custom SPARQL query (Admin/Dev only - use with caution)",
+            description = "Allows execution of an arbitrary SPARQL SELECT, ASK, CONSTRUCT or DESCRIBE query. " +
+                    "Results are streamed as they are produced, in the format chosen by the Accept header: " +
+                    "SELECT and ASK as application/sparql-results+json (default; also for application/json), text/csv or text/tab-separated-values, " +
+                    "CONSTRUCT and DESCRIBE as application/n-triples. " +
+                    "Queries run within a budget: results are cut off at a maximum row count, queries exceeding the first-result or overall timeout are cancelled, " +
+                    "and queries joining patterns that share no variable are refused unless they have a LIMIT and no ORDER BY or GROUP BY. " +
                     "NOTE: Exposing arbitrary SPARQL query execution directly via an API can be a security risk if not properly secured and sanitized. " +
                     "This endpoint is provided for testing/development or restricted admin use.",
             security = @SecurityRequirement(name = "bearerAuth") // Example: Secure if needed
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Query executed successfully",
-                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(type = "array", implementation = Map.class))),
-            @ApiResponse(responseCode = "400", description = "SPARQL query parameter is missing or query parsing error"),
+            @ApiResponse(responseCode = "200", description = "Query executed successfully; results follow in the negotiated format",
+                    content = {
+                            @Content(mediaType = "application/sparql-results+json"),
+                            @Content(mediaType = "text/csv"),
+                            @Content(mediaType = "text/tab-separated-values"),
+                            @Content(mediaType = "application/n-triples")
+                    }),
+            @ApiResponse(responseCode = "400", description = "SPARQL query parameter is missing, query parsing error, or query refused for a cartesian join"),
             @ApiResponse(responseCode = "401", description = "Unauthorized (if secured)"),
             @ApiResponse(responseCode = "403", description = "Forbidden (if secured and user lacks permissions)"),
-            @ApiResponse(responseCode = "500", description = "Error executing SPARQL query")
+            @ApiResponse(responseCode = "406", description = "None of the accepted media types fits the query form"),
+            @ApiResponse(responseCode = "500", description = "Error executing SPARQL query"),
+            @ApiResponse(responseCode = "503", description = "SPARQL query timed out")
     })
     @PostMapping("/query")
     // @PreAuthorize("hasRole('ADMIN')") // Example: Secure this endpoint if it's for admin/dev use
-    public ResponseEntity<List<Map<String, String>>> executeCustomQuery(
-            @Parameter(description = "The SPARQL SELECT query string.", required = true,
+    public ResponseEntity<StreamingResponseBody> executeCustomQuery(
+            @Parameter(description = "The SPARQL query string.", required = true,
                     example = "PREFIX schema: <http://schema.org/> SELECT ?s ?p ?o WHERE { ?s schema:name ?o . FILTER regex(?o, \"Shirt\", \"i\") } LIMIT 10")
-            @org.springframework.web.bind.annotation.RequestBody String sparqlQuery) { // Changed to RequestBody for potentially long queries
+            @org.springframework.web.bind.annotation.RequestBody String sparqlQuery, // Changed to RequestBody for potentially long queries
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         if (sparqlQuery == null || sparqlQuery.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body(List.of(Map.of("error", "sparqlQuery parameter is required.")));
+            throw new InvalidFieldException("sparqlQuery parameter is required.");
         }
-        try {
-            List<Map<String, String>> results = sparqlQueryService.executeSparqlQuery(sparqlQuery);
-            return ResponseEntity.ok(results);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body(List.of(Map.of("error", "Failed to execute custom SPARQL query: " + e.getMessage())));
+        Query query = sparqlQueryService.parseQuery(sparqlQuery);
+        List<MediaType> accepted = StringUtils.hasText(accept) ? MediaType.parseMediaTypes(accept) : List.of();
+        Optional<SparqlResultFormat> format = SparqlResultFormat.negotiate(query, accepted);
+        if (format.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
         }
+        // Written after this method returns, on the request's async thread.
+        return ResponseEntity.ok()
+                .contentType(format.get().mediaType())
+                .body(out -> sparqlQueryService.streamQuery(query, format.get(), out));
     }
 }
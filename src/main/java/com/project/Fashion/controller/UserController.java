@@ -19,12 +19,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
 import java.util.List;
 import java.util.Map;
 
@@ -45,7 +47,7 @@ public class UserController {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(example = "{\"message\":\"Email already exists: john.doe@example.com\"}")))
     })
     @PostMapping("/register")
-    public ResponseEntity<UserDto> signUp(@Valid @RequestBody UserSignUpDto dto){
+    public ResponseEntity<UserDto> signUp(@Validated({Default.class, UserSignUpDto.NewAccount.class}) @RequestBody UserSignUpDto dto){
         return ResponseEntity.status(HttpStatus.CREATED).body(userService.register(dto));
     }
 
@@ -77,7 +79,7 @@ public class UserController {
     })
     @PostMapping("/admin/create-user")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserDto> createUserByAdmin(@Valid @RequestBody UserSignUpDto dto) {
+    public ResponseEntity<UserDto> createUserByAdmin(@Validated({Default.class, UserSignUpDto.NewAccount.class}) @RequestBody UserSignUpDto dto) {
         UserDto createdUser = userService.createUserByAdmin(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
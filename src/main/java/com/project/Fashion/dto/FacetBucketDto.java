@@ -0,0 +1,25 @@
+package com.project.Fashion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One bucket of a facet: a labelled value range and the number of matching products in it.")
+public class FacetBucketDto {
+
+    @Schema(description = "Display label of the bucket.", example = "50-100")
+    private String label;
+
+    @Schema(description = "Inclusive lower bound of the bucket; null if unbounded.", example = "50.0")
+    private Float from;
+
+    @Schema(description = "Exclusive upper bound of the bucket; null if unbounded.", example = "100.0")
+    private Float to;
+
+    @Schema(description = "Number of matching products in the bucket.", example = "12")
+    private long count;
+}
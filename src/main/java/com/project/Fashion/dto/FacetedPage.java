@@ -0,0 +1,26 @@
+package com.project.Fashion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * A page of results that also carries the facet counts of the full result set,
+ * so the listing and its filters can be rendered from a single response.
+ */
+@Schema(description = "A page of results with facet counts for the whole filtered result set.")
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final ProductFacetsDto facets;
+
+    public FacetedPage(List<T> content, Pageable pageable, long total, ProductFacetsDto facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+
+    public ProductFacetsDto getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.Fashion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A slice of results for keyset (cursor) pagination. Pass nextCursor as the 'after' parameter to fetch the following slice.")
+public class KeysetSliceDto<T> {
+
+    @Schema(description = "Items of the current slice.")
+    private List<T> content;
+
+    @Schema(description = "Number of items in the current slice.", example = "10")
+    private int numberOfElements;
+
+    @Schema(description = "Whether another slice follows this one.", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor for the next slice; null on the last slice.", example = "djF8cHJpY2V8QVNDfHByaWNlPWY6MTExNTY4NDg2NHxpZD1sOjQy")
+    private String nextCursor;
+}
@@ -22,9 +22,6 @@ public class OrderRequestDto {
     private Long product;
 
     @Schema(description = "Date of the order. If not provided, defaults to current date. For updates, can be provided.", example = "2024-06-05T14:30:00.000Z")
-    @NotNull(message = "Order date cannot be null.") // If it's always set by backend, this might not be needed on input DTO.
-    // If client can set it, then NotNull is good.
-    // If it's for future orders only: @FutureOrPresent
     private Date date;
 
     @Schema(description = "Quantity of the product being ordered.", example = "2", requiredMode = Schema.RequiredMode.REQUIRED)
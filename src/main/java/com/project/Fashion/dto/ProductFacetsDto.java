@@ -0,0 +1,31 @@
+package com.project.Fashion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Aggregate counts over all products matching the current filters, not just the current page.")
+public class ProductFacetsDto {
+
+    @Schema(description = "Number of matching products per category.", example = "{\"Dress\": 4, \"Shirt\": 2}")
+    private Map<String, Long> categories;
+
+    @Schema(description = "Histogram of matching products by price.")
+    private List<FacetBucketDto> priceRanges;
+
+    @Schema(description = "Matching products by minimum average rating (cumulative, e.g. '4+' includes 5-star products), plus products without reviews.")
+    private List<FacetBucketDto> ratings;
+
+    @Schema(description = "Lowest price among the matching products; null if nothing matches.", example = "20.0")
+    private Float minPrice;
+
+    @Schema(description = "Highest price among the matching products; null if nothing matches.", example = "249.99")
+    private Float maxPrice;
+}
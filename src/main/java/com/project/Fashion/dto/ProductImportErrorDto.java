@@ -0,0 +1,19 @@
+package com.project.Fashion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A row of a bulk import that was not imported, with the reason.")
+public class ProductImportErrorDto {
+
+    @Schema(description = "Row number in the uploaded file (1-based; for CSV the header is row 1).", example = "17")
+    private int row;
+
+    @Schema(description = "Why the row was rejected.", example = "price: Product price must be greater than 0.")
+    private String message;
+}
@@ -0,0 +1,30 @@
+package com.project.Fashion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of a bulk product import.")
+public class ProductImportReportDto {
+
+    @Schema(description = "Number of data rows read.", example = "1200")
+    private int totalRows;
+
+    @Schema(description = "Number of products created.", example = "1187")
+    private int imported;
+
+    @Schema(description = "Number of rows rejected.", example = "13")
+    private int failed;
+
+    @Schema(description = "Rejected rows with the reason, in file order. Capped; see errorsTruncated.")
+    private List<ProductImportErrorDto> errors;
+
+    @Schema(description = "Whether more rows failed than are listed in errors.", example = "false")
+    private boolean errorsTruncated;
+}
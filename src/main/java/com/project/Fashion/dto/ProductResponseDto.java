@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -29,6 +31,10 @@ public class ProductResponseDto {
     @Schema(description = "URL of the product's image.", example = "http://localhost:8080/api/products/image/product_1_image.png")
     private String photoUrl;
 
+    @Schema(description = "URLs of resized JPEG copies of the image, keyed by size (thumbnail, card, detail). Null if the product has no image served by this API.",
+            example = "{\"thumbnail\": \"/api/products/image/product_1_image.png?size=thumbnail\", \"card\": \"/api/products/image/product_1_image.png?size=card\", \"detail\": \"/api/products/image/product_1_image.png?size=detail\"}")
+    private Map<String, String> imageVariants;
+
     @Schema(description = "The ID of the seller who owns the product.", example = "a1b2c3d4-e5f6-7890-g1h2-i3j4k5l6m7n8")
     private String sellerId;
 
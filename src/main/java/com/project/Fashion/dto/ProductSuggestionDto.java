@@ -0,0 +1,31 @@
+package com.project.Fashion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A typeahead suggestion: either a product or a category.")
+public class ProductSuggestionDto {
+
+    @Schema(description = "Kind of suggestion.", example = "PRODUCT", allowableValues = {"PRODUCT", "CATEGORY"})
+    private String type;
+
+    @Schema(description = "ID of the suggested product; null for category suggestions.", example = "12")
+    private Long productId;
+
+    @Schema(description = "Text to display and to search for.", example = "Floral Summer Dress")
+    private String text;
+
+    @Schema(description = "Category of the suggested product, or the category itself.", example = "Dress")
+    private String category;
+
+    @Schema(description = "Average rating of the suggested product; 0 for categories.", example = "4.5")
+    private float averageRating;
+
+    @Schema(description = "Number of reviews of the suggested product; for categories, the number of products in it.", example = "23")
+    private int numOfReviews;
+}
@@ -16,6 +16,12 @@ import jakarta.validation.constraints.Size;
 @Schema(description = "DTO for user registration")
 public class UserSignUpDto {
 
+    /**
+     * Constraints that apply only when an account is created; updates keep the current password if none is given.
+     */
+    public interface NewAccount {
+    }
+
     @Schema(description = "User's first name.", example = "John", requiredMode = Schema.RequiredMode.REQUIRED)
     @NotBlank(message = "First name cannot be blank")
     private String firstName;
@@ -29,8 +35,8 @@ public class UserSignUpDto {
     @Email(message = "Invalid email format")
     private String email;
 
-    @Schema(description = "User's password. Must be at least 8 characters long.", example = "Password123!", requiredMode = Schema.RequiredMode.REQUIRED)
-    @NotBlank(message = "Password cannot be blank")
+    @Schema(description = "User's password. Must be at least 8 characters long. Required for new accounts; omit it on update to keep the current one.", example = "Password123!", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "Password cannot be blank", groups = NewAccount.class)
     @Size(min = 8, message = "Password must be at least 8 characters long")
     private String password;
 
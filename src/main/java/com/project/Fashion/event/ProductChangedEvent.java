@@ -0,0 +1,28 @@
+package com.project.Fashion.event;
+
+import com.project.Fashion.model.ProductSnapshot;
+
+/**
+ * Published whenever a product is created, updated or deleted.
+ * {@code before} is null for a newly created product and {@code after} is null for a deleted one.
+ * Listeners that keep derived, in-memory views of the catalog should consume it with
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public record ProductChangedEvent(Long productId, ProductSnapshot before, ProductSnapshot after) {
+
+    public static ProductChangedEvent created(ProductSnapshot after) {
+        return new ProductChangedEvent(after.id(), null, after);
+    }
+
+    public static ProductChangedEvent updated(ProductSnapshot before, ProductSnapshot after) {
+        return new ProductChangedEvent(after.id(), before, after);
+    }
+
+    public static ProductChangedEvent deleted(ProductSnapshot before) {
+        return new ProductChangedEvent(before.id(), before, null);
+    }
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.Fashion.event;
+
+import com.project.Fashion.model.ProductSnapshot;
+
+import java.util.List;
+
+/**
+ * Published once at the end of a bulk import with all products it created for one seller.
+ * Listeners apply the whole set in one go instead of handling a {@link ProductChangedEvent} per row.
+ */
+public record ProductsImportedEvent(String sellerId, List<ProductSnapshot> products) {
+}
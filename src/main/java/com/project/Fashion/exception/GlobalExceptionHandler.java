@@ -144,6 +144,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    @ExceptionHandler(SparqlQueryRejectedException.class)
+    public ResponseEntity<String> handleSparqlQueryRejected(SparqlQueryRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(SparqlQueryTimeoutException.class)
+    public ResponseEntity<String> handleSparqlQueryTimeout(SparqlQueryTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
     @ExceptionHandler(RequestNotPermitted.class)
     public ResponseEntity<Map<String, Object>> handleRequestNotPermitted(RequestNotPermitted ex) {
         Map<String, Object> body = new HashMap<>();
@@ -0,0 +1,7 @@
+package com.project.Fashion.exception.exceptions;
+
+public class SparqlQueryRejectedException extends RuntimeException{
+    public SparqlQueryRejectedException(String message){
+        super(message);
+    }
+}
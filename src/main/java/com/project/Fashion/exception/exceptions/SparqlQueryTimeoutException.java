@@ -0,0 +1,7 @@
+package com.project.Fashion.exception.exceptions;
+
+public class SparqlQueryTimeoutException extends RuntimeException{
+    public SparqlQueryTimeoutException(String message){
+        super(message);
+    }
+}
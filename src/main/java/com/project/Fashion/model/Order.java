@@ -14,6 +14,7 @@ import java.util.Date;
         @Index(name = "idx_order_product_id", columnList = "product_id"),
         @Index(name = "idx_order_delivery_id", columnList = "delivery_id"),
         @Index(name = "idx_order_date", columnList = "date"),
+        @Index(name = "idx_order_user_date", columnList = "user_id, date, id"), // Keyset scrolling of a buyer's orders
         @Index(name = "idx_order_status", columnList = "status")
 })
 @Data
@@ -6,14 +6,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
 
 @Entity
 @Table(name = "product", indexes = {
         @Index(name = "idx_product_category", columnList = "category"),
         @Index(name = "idx_product_price", columnList = "price"),
-        @Index(name = "idx_product_seller_id", columnList = "seller_id") // If not automatically created for FK
+        @Index(name = "idx_product_seller_id", columnList = "seller_id"), // If not automatically created for FK
+        @Index(name = "idx_product_updated_at", columnList = "updated_at")
 })
 @Data
 @AllArgsConstructor
@@ -47,6 +50,10 @@ public class Product {
     private float averageRating;
     private int numOfReviews;
 
+    // Set on every insert and update; the RDF store syncs the products changed since its watermark.
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
     @JsonManagedReference("product-reviews")
     private List<Review> reviews;
@@ -0,0 +1,35 @@
+package com.project.Fashion.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Records that a product was deleted, so the RDF store sync can remove it by reading the deletions since its
+ * watermark instead of comparing every product ID. Written in the transaction that deletes the product.
+ */
+@Entity
+@Table(name = "product_deletion", indexes = {
+        @Index(name = "idx_product_deletion_deleted_at", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDeletion {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private Instant deletedAt;
+
+    public ProductDeletion(Long productId) {
+        this.productId = productId;
+    }
+}
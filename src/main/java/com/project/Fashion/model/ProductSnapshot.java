@@ -0,0 +1,32 @@
+package com.project.Fashion.model;
+
+/**
+ * Immutable, detached copy of the scalar fields of a {@link Product}.
+ * Used by the in-memory catalog structures so they never hold on to managed entities
+ * or trigger lazy loading outside of a transaction.
+ */
+public record ProductSnapshot(
+        Long id,
+        String name,
+        String description,
+        String category,
+        float price,
+        float averageRating,
+        int numOfReviews,
+        String sellerId,
+        String photoUrl) {
+
+    public static ProductSnapshot of(Product product) {
+        if (product == null) return null;
+        return new ProductSnapshot(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getCategory(),
+                product.getPrice(),
+                product.getAverageRating(),
+                product.getNumOfReviews(),
+                product.getSeller() != null ? product.getSeller().getId() : null,
+                product.getPhotoUrl());
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.Fashion.repository;
+
+import com.project.Fashion.model.ProductDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProductDeletionRepository extends JpaRepository<ProductDeletion, Long> {
+
+    /**
+     * IDs of the products deleted since the given time, used for incremental RDF sync.
+     */
+    @Query("SELECT d.productId FROM ProductDeletion d WHERE d.deletedAt >= :since")
+    List<Long> findProductIdsDeletedSince(@Param("since") Instant since);
+
+    /**
+     * @return The number of deletion records removed.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProductDeletion d WHERE d.deletedAt < :before")
+    int deleteRecordedBefore(@Param("before") Instant before);
+}
@@ -1,12 +1,19 @@
 package com.project.Fashion.repository;
 
 import com.project.Fashion.model.Product;
+import com.project.Fashion.model.ProductSnapshot;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -28,4 +35,48 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     Float findMaxPrice();
 
     Optional<Product> findByName(String name);
+
+    /**
+     * @return Those of the given names that are already used by a product (names are unique).
+     */
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    /**
+     * Keyset-paged scan of all product IDs, used to fill an empty RDF store.
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Keyset-paged scan of the IDs of the products changed since the given time, used for incremental RDF sync.
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.updatedAt >= :since AND p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsChangedSinceAfter(@Param("since") Instant since, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Loads the products with their seller, reviews and reviewers in one query, for converting them to RDF
+     * without a query per association. Page by ID first: a fetch join of the reviews cannot be limited in SQL.
+     */
+    @Query("SELECT DISTINCT p FROM Product p JOIN FETCH p.seller LEFT JOIN FETCH p.reviews r LEFT JOIN FETCH r.user " +
+            "WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findWithSellerAndReviewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    /**
+     * @return Every distinct photo URL in use; images no URL refers to can be deleted.
+     */
+    @Query("SELECT DISTINCT p.photoUrl FROM Product p WHERE p.photoUrl IS NOT NULL")
+    List<String> findAllPhotoUrls();
+
+    /**
+     * Loads the scalar fields of every product without materializing entities or their associations.
+     * Used to (re)build the in-memory catalog structures.
+     */
+    @Query("SELECT new com.project.Fashion.model.ProductSnapshot(" +
+            "p.id, p.name, p.description, p.category, p.price, p.averageRating, p.numOfReviews, s.id, p.photoUrl) " +
+            "FROM Product p JOIN p.seller s")
+    List<ProductSnapshot> findAllSnapshots();
 }
@@ -0,0 +1,204 @@
+package com.project.Fashion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the product caches warm across restarts.
+ * <p>
+ * While running, the listing queries and product ids requested through ProductController are counted,
+ * and the most frequent ones are written to a small JSON file periodically and on shutdown. When the
+ * application is ready (after the in-memory catalog has loaded), the file is replayed in the background
+ * with bounded concurrency. Until that finishes, or the timeout passes, {@link #isWarmedUp()} is false,
+ * which keeps the instance out of the readiness group via CacheWarmupHealthIndicator.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CacheWarmupService {
+
+    // Cap on distinct keys counted between saves, so a crawler cannot grow the counters without bound.
+    private static final int MAX_TRACKED_KEYS = 10_000;
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${fashion.cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fashion.cache.warmup.file:data/cache-warmup.json}")
+    private Path file;
+
+    @Value("${fashion.cache.warmup.max-listings:200}")
+    private int maxListings;
+
+    @Value("${fashion.cache.warmup.max-product-ids:1000}")
+    private int maxProductIds;
+
+    @Value("${fashion.cache.warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${fashion.cache.warmup.timeout:60s}")
+    private Duration timeout;
+
+    private final Map<ProductListQuery, LongAdder> listingCounts = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> productCounts = new ConcurrentHashMap<>();
+    private volatile boolean warmedUp;
+
+    /**
+     * Contents of the warm-up file: the hottest listing queries and product ids, most frequent first.
+     */
+    public record WarmupSnapshot(List<ProductListQuery> listings, List<Long> productIds) {
+    }
+
+    public void recordListing(ProductListQuery query) {
+        if (enabled) count(listingCounts, query);
+    }
+
+    public void recordProducts(List<Long> productIds) {
+        if (enabled) productIds.forEach(id -> count(productCounts, id));
+    }
+
+    private static <K> void count(Map<K, LongAdder> counts, K key) {
+        if (key == null) return;
+        LongAdder counter = counts.get(key);
+        if (counter == null) {
+            if (counts.size() >= MAX_TRACKED_KEYS) return;
+            counter = counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    @Order(10)
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        WarmupSnapshot snapshot = enabled ? readSnapshot() : null;
+        if (snapshot == null) {
+            warmedUp = true;
+            return;
+        }
+        Thread replayer = new Thread(() -> replay(snapshot), "cache-warmup");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    private void replay(WarmupSnapshot snapshot) {
+        long start = System.currentTimeMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Callable<Object>> tasks = new ArrayList<>();
+        tasks.add(productService::getDistinctCategories);
+        tasks.add(productService::getProductPriceRange);
+        for (ProductListQuery query : snapshot.listings()) {
+            tasks.add(() -> productService.getAllProducts(query.page(), query.size(), query.category(), query.searchTerm(),
+                    query.minPrice(), query.maxPrice(), query.minRating(), query.noReviews(), query.sortBy(), query.sortDir()));
+        }
+        List<Long> ids = snapshot.productIds();
+        for (int from = 0; from < ids.size(); from += ProductService.MAX_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ProductService.MAX_BATCH_SIZE, ids.size()));
+            tasks.add(() -> productService.getProductsByIds(chunk));
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        List<Callable<Object>> guarded = tasks.stream().<Callable<Object>>map(task -> () -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                log.debug("Cache warm-up task failed: {}", e.getMessage());
+                return null;
+            }
+        }).collect(Collectors.toList());
+
+        try {
+            pool.invokeAll(guarded, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+            warmedUp = true;
+        }
+        log.info("Cache warm-up replayed {} listings and {} product ids ({} tasks failed) in {} ms.",
+                snapshot.listings().size(), ids.size(), failures.get(), System.currentTimeMillis() - start);
+    }
+
+    private WarmupSnapshot readSnapshot() {
+        if (!Files.isReadable(file)) {
+            log.info("No cache warm-up file at {}; starting cold.", file.toAbsolutePath());
+            return null;
+        }
+        try {
+            WarmupSnapshot snapshot = objectMapper.readValue(file.toFile(), WarmupSnapshot.class);
+            return new WarmupSnapshot(
+                    snapshot.listings() != null ? snapshot.listings() : List.of(),
+                    snapshot.productIds() != null ? snapshot.productIds() : List.of());
+        } catch (IOException e) {
+            log.warn("Could not read cache warm-up file {}: {}", file.toAbsolutePath(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fashion.cache.warmup.save-interval-ms:300000}",
+            initialDelayString = "${fashion.cache.warmup.save-interval-ms:300000}")
+    @PreDestroy
+    public void saveSnapshot() {
+        if (!enabled || (listingCounts.isEmpty() && productCounts.isEmpty())) return;
+        WarmupSnapshot snapshot = new WarmupSnapshot(top(listingCounts, maxListings), top(productCounts, maxProductIds));
+        // Keep counting the saved keys but forget the long tail, so keys that become hot later still get a slot.
+        listingCounts.keySet().retainAll(new HashSet<>(snapshot.listings()));
+        productCounts.keySet().retainAll(new HashSet<>(snapshot.productIds()));
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, "cache-warmup", ".tmp");
+            objectMapper.writeValue(temporary.toFile(), snapshot);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} listings and {} product ids for cache warm-up.", snapshot.listings().size(), snapshot.productIds().size());
+        } catch (IOException e) {
+            log.warn("Could not write cache warm-up file {}: {}", file.toAbsolutePath(), e.getMessage());
+        }
+    }
+
+    private static <K> List<K> top(Map<K, LongAdder> counts, int limit) {
+        return counts.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<K, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.Fashion.service;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.OpVars;
+import org.apache.jena.sparql.algebra.OpVisitorBase;
+import org.apache.jena.sparql.algebra.OpWalker;
+import org.apache.jena.sparql.algebra.op.OpBGP;
+import org.apache.jena.sparql.algebra.op.OpJoin;
+import org.apache.jena.sparql.algebra.op.OpLeftJoin;
+import org.apache.jena.sparql.algebra.op.OpSequence;
+import org.apache.jena.sparql.algebra.op.OpTable;
+import org.apache.jena.sparql.core.Var;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds joins in a query's algebra whose sides share no variable, so every row of one side is paired with
+ * every row of the other. Within a basic graph pattern the triple patterns are grouped by shared variables
+ * (blank nodes count as variables); more than one group with variables is such a join. Between operators,
+ * a join, optional or sequence whose operands bind no common variable is one, unless one operand is a
+ * VALUES table of at most {@value #MAX_UNJOINED_TABLE_ROWS} rows, which only multiplies the other side's
+ * rows by that many.
+ */
+final class CartesianJoinFinder extends OpVisitorBase {
+
+    static final int MAX_UNJOINED_TABLE_ROWS = 10;
+
+    private String found;
+
+    private CartesianJoinFinder() {
+    }
+
+    /**
+     * @return A description of the first cartesian join found, or empty if there is none.
+     */
+    static Optional<String> find(Op op) {
+        CartesianJoinFinder finder = new CartesianJoinFinder();
+        OpWalker.walk(op, finder);
+        return Optional.ofNullable(finder.found);
+    }
+
+    @Override
+    public void visit(OpBGP opBGP) {
+        List<Set<Var>> groups = new ArrayList<>();
+        for (Triple triple : opBGP.getPattern()) {
+            Set<Var> group = vars(triple);
+            if (group.isEmpty()) continue;
+            // Merge every group this triple shares a variable with into its own.
+            for (Iterator<Set<Var>> it = groups.iterator(); it.hasNext(); ) {
+                Set<Var> other = it.next();
+                if (!Collections.disjoint(other, group)) {
+                    group.addAll(other);
+                    it.remove();
+                }
+            }
+            groups.add(group);
+        }
+        if (groups.size() > 1) report("triple patterns without a shared variable: " + groups);
+    }
+
+    @Override
+    public void visit(OpJoin opJoin) {
+        check(opJoin.getLeft(), opJoin.getRight());
+    }
+
+    @Override
+    public void visit(OpLeftJoin opLeftJoin) {
+        check(opLeftJoin.getLeft(), opLeftJoin.getRight());
+    }
+
+    @Override
+    public void visit(OpSequence opSequence) {
+        for (int i = 1; i < opSequence.size(); i++) {
+            check(opSequence.get(i - 1), opSequence.get(i));
+        }
+    }
+
+    private void check(Op left, Op right) {
+        if (isSmallTable(left) || isSmallTable(right)) return;
+        Set<Var> leftVars = OpVars.visibleVars(left);
+        Set<Var> rightVars = OpVars.visibleVars(right);
+        if (!leftVars.isEmpty() && !rightVars.isEmpty() && Collections.disjoint(leftVars, rightVars)) {
+            report("groups without a shared variable: " + leftVars + " and " + rightVars);
+        }
+    }
+
+    private static boolean isSmallTable(Op op) {
+        return op instanceof OpTable table && table.getTable().size() <= MAX_UNJOINED_TABLE_ROWS;
+    }
+
+    private void report(String description) {
+        if (found == null) found = description;
+    }
+
+    private static Set<Var> vars(Triple triple) {
+        Set<Var> vars = new HashSet<>();
+        for (Node node : List.of(triple.getSubject(), triple.getPredicate(), triple.getObject())) {
+            if (Var.isVar(node)) vars.add(Var.alloc(node));
+        }
+        return vars;
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.event.ProductsImportedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of the product catalog, used to build ETags for the public
+ * catalog endpoints. Every committed {@link ProductChangedEvent} (product writes in ProductService,
+ * rating updates in ReviewService) and every bulk {@link ProductsImportedEvent} bumps it.
+ * <p>
+ * The version is seeded with the start-up time so ETags handed out before a restart do not match
+ * again afterwards. The bump runs after all other product listeners, so once a client sees a new
+ * ETag, the caches and in-memory indexes already reflect the change.
+ */
+@Service
+@Slf4j
+public class CatalogVersionService {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        long current = version.incrementAndGet();
+        log.debug("Catalog version bumped to {} after change of product {}.", current, event.productId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        long current = version.incrementAndGet();
+        log.debug("Catalog version bumped to {} after import of {} products.", current, event.products().size());
+    }
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * @return A weak ETag for the current catalog version, e.g. {@code W/"catalog-1718000000123"}.
+     */
+    public String currentETag() {
+        return "W/\"catalog-" + version.get() + "\"";
+    }
+}
@@ -0,0 +1,182 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores product images by content.
+ * <p>
+ * An upload is streamed to a temporary file while its SHA-256 is computed, then moved into place as
+ * {@code <root>/ab/cd/<sha256>.<ext>}, where ab and cd are the first two bytes of the hash. Identical
+ * uploads are therefore stored once, and the two shard levels keep each directory small. The filename
+ * alone locates the file, so photo URLs stay {@code /api/products/image/<sha256>.<ext>}. Derived files
+ * such as {@link ImageVariant}s live next to their original in the same shard.
+ * <p>
+ * Images stored before this scheme (the seed images and older uploads) stay in the root directory and
+ * are still resolved there. A scheduled job deletes content-addressed files that no product's photoUrl
+ * refers to, once they are older than a grace period that covers uploads whose transaction has not
+ * committed yet.
+ */
+@Service
+@Slf4j
+public class ImageStorageService {
+
+    // <64 hex digits>.<png|jpg>, optionally followed by a variant suffix such as ".card.jpg".
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64})\\.(png|jpg)(\\..+)?");
+    private static final String INCOMING_DIRECTORY = ".incoming";
+
+    private final ProductRepository productRepository;
+    private final Path root;
+    private final Duration gcGracePeriod;
+
+    public ImageStorageService(ProductRepository productRepository,
+                               @Value("${fashion.images.directory:src/main/resources/static/uploads/products}") String directory,
+                               @Value("${fashion.images.gc.grace-period:1h}") Duration gcGracePeriod) {
+        this.productRepository = productRepository;
+        this.root = Paths.get(directory).toAbsolutePath().normalize();
+        this.gcGracePeriod = gcGracePeriod;
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * @return Whether the file is named by its content hash, in which case its content never changes.
+     */
+    public static boolean isContentAddressed(String filename) {
+        return CONTENT_ADDRESSED.matcher(filename).matches();
+    }
+
+    /**
+     * @return Where the named image (or a file derived from it) is stored, or null if the name would
+     * leave the image directory.
+     */
+    public Path resolve(String filename) {
+        Matcher matcher = CONTENT_ADDRESSED.matcher(filename);
+        Path path = matcher.matches() ? shardOf(matcher.group(1)).resolve(filename) : root.resolve(filename).normalize();
+        return path.startsWith(root) && !path.equals(root) ? path : null;
+    }
+
+    private Path shardOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+    }
+
+    /**
+     * Streams the image into the store.
+     *
+     * @param extension "png" or "jpg"
+     * @return The content-addressed filename of the image.
+     */
+    public String store(InputStream content, String extension) throws IOException {
+        Path incoming = Files.createDirectories(root.resolve(INCOMING_DIRECTORY));
+        Path temporary = Files.createTempFile(incoming, "upload", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (DigestInputStream input = new DigestInputStream(content, digest)) {
+                Files.copy(input, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String filename = hash + "." + extension;
+            Path target = Files.createDirectories(shardOf(hash)).resolve(filename);
+            if (Files.exists(target)) {
+                // Already stored; refresh its age so the collector does not remove it before the new reference commits.
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                log.info("Image {} is already stored; reusing it.", filename);
+                return filename;
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently by an identical upload.
+            }
+            return filename;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Deletes content-addressed images, with their variants, that no product refers to, and temporary
+     * files left behind by interrupted uploads. Only files older than the grace period are considered.
+     */
+    @Scheduled(fixedDelayString = "${fashion.images.gc.interval-ms:3600000}",
+            initialDelayString = "${fashion.images.gc.interval-ms:3600000}")
+    public void collectGarbage() {
+        if (!Files.isDirectory(root)) return;
+        Set<String> referenced = productRepository.findAllPhotoUrls().stream()
+                .map(ImageVariant::originalFilenameOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Instant cutoff = Instant.now().minus(gcGracePeriod);
+        List<Path> garbage;
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            garbage = files.filter(Files::isRegularFile)
+                    .filter(path -> isUnreferenced(path, referenced))
+                    .filter(path -> isOlderThan(path, cutoff))
+                    .toList();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not scan image directory {}: {}", root, e.getMessage());
+            return;
+        }
+        int deleted = 0;
+        for (Path path : garbage) {
+            try {
+                if (Files.deleteIfExists(path)) deleted++;
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced image {}: {}", path, e.getMessage());
+            }
+        }
+        if (deleted > 0) log.info("Deleted {} unreferenced image files.", deleted);
+    }
+
+    private boolean isUnreferenced(Path path, Set<String> referenced) {
+        if (path.getParent().endsWith(INCOMING_DIRECTORY)) return true;
+        Matcher matcher = CONTENT_ADDRESSED.matcher(path.getFileName().toString());
+        // Files outside the content-addressed tree (seed images, older uploads) are never collected.
+        if (!matcher.matches() || !path.getParent().equals(shardOf(matcher.group(1)))) return false;
+        return !referenced.contains(matcher.group(1) + "." + matcher.group(2));
+    }
+
+    private static boolean isOlderThan(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
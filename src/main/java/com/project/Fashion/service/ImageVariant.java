@@ -0,0 +1,85 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.exception.exceptions.InvalidFieldException;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resized copies of a product image, written next to the original by {@link ProductImageVariantService}
+ * and served through {@code GET /api/products/image/{filename}?size=<variant>}.
+ * <p>
+ * Variants are always JPEG; transparent areas of PNG uploads are flattened onto white.
+ */
+public enum ImageVariant {
+
+    THUMBNAIL(160),
+    CARD(480),
+    DETAIL(1200);
+
+    public static final String IMAGE_URL_PREFIX = "/api/products/image/";
+
+    private static final String FILE_SUFFIX = ".jpg";
+
+    /** Longest side in pixels; smaller originals are recompressed but not enlarged. */
+    private final int maxDimension;
+
+    ImageVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int maxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * @return The value of the {@code size} parameter for this variant, e.g. "card".
+     */
+    public String paramName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The filename of this variant of an original image, e.g. "dress-2.jpg.card.jpg".
+     */
+    public String fileNameFor(String originalFilename) {
+        return originalFilename + "." + paramName() + FILE_SUFFIX;
+    }
+
+    public static boolean isVariantFile(String filename) {
+        for (ImageVariant variant : values()) {
+            if (filename.endsWith("." + variant.paramName() + FILE_SUFFIX)) return true;
+        }
+        return false;
+    }
+
+    public static ImageVariant fromName(String name) {
+        try {
+            return ImageVariant.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidFieldException("Unsupported image size '" + name + "'; use thumbnail, card or detail.");
+        }
+    }
+
+    /**
+     * @return The original's filename if the photo URL points at the image endpoint, otherwise null.
+     */
+    public static String originalFilenameOf(String photoUrl) {
+        if (photoUrl == null || !photoUrl.startsWith(IMAGE_URL_PREFIX)) return null;
+        String filename = photoUrl.substring(IMAGE_URL_PREFIX.length());
+        return filename.isEmpty() || filename.contains("/") ? null : filename;
+    }
+
+    /**
+     * @return The URL of every variant keyed by its size name, or null if the photo is not served by this application.
+     */
+    public static Map<String, String> urlsFor(String photoUrl) {
+        if (originalFilenameOf(photoUrl) == null) return null;
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : values()) {
+            urls.put(variant.paramName(), photoUrl + "?size=" + variant.paramName());
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,224 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.util.TextTokenizer;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process token index over the schema:name and schema:description literals of the products in the
+ * RDF store, queried from SPARQL through {@link KeywordMatchPropertyFunction}.
+ * <p>
+ * Text is normalized with {@link TextTokenizer#normalize}, so case and accents are ignored ("cafe" finds
+ * "Café"), and split into runs of letters and digits; stop words are kept. A keyword matches a product if
+ * every token of the keyword is the start of some token of the indexed text, so "cott" finds "cotton" but
+ * "otton" does not. Tokens are kept sorted, which makes each keyword token a range scan instead of a scan over
+ * every literal.
+ * <p>
+ * Maintained by {@link RdfConversionService} after each store write commits. Lookups may run concurrently
+ * with updates; they then see each product either before or after its update. An index made with
+ * {@link #incomplete()} stands in while the full one is built in the background: it takes updates and
+ * remembers which products they touched, but does not answer searches (see {@link #isComplete()}).
+ */
+public class KeywordIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Postings of one indexed property.
+     */
+    private static final class Field {
+        // Token -> URIs of the products whose text contains it.
+        private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+        // Product URI -> its tokens, so an update can remove the old ones.
+        private final Map<String, Set<String>> tokensByProduct = new ConcurrentHashMap<>();
+
+        private void put(String productUri, String text) {
+            remove(productUri);
+            Set<String> tokens = tokenize(text);
+            if (tokens.isEmpty()) return;
+            tokensByProduct.put(productUri, tokens);
+            tokens.forEach(token -> postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(productUri));
+        }
+
+        private void remove(String productUri) {
+            Set<String> tokens = tokensByProduct.remove(productUri);
+            if (tokens == null) return;
+            for (String token : tokens) {
+                postings.computeIfPresent(token, (t, products) -> {
+                    products.remove(productUri);
+                    return products.isEmpty() ? null : products;
+                });
+            }
+        }
+
+        private Set<String> withTokenPrefix(String prefix) {
+            Set<String> products = new HashSet<>();
+            postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values().forEach(products::addAll);
+            return products;
+        }
+    }
+
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+    // URIs of the products updated or removed since creation; only kept by an incomplete index.
+    private final Set<String> touched;
+
+    public KeywordIndex() {
+        this(null);
+    }
+
+    private KeywordIndex(Set<String> touched) {
+        this.touched = touched;
+        fields.put(RdfConversionService.SCHEMA_name.getURI(), new Field());
+        fields.put(RdfConversionService.SCHEMA_description.getURI(), new Field());
+    }
+
+    /**
+     * @return An empty index that records the products its updates touch, for {@link #touched()}.
+     */
+    public static KeywordIndex incomplete() {
+        return new KeywordIndex(ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * @return Whether this index covers every product in the store. If not, search the store with
+     * {@link #scan(Model, String, String)} instead.
+     */
+    public boolean isComplete() {
+        return touched == null;
+    }
+
+    /**
+     * @return The URIs of the products updated or removed in this incomplete index so far.
+     */
+    public Set<String> touched() {
+        return touched == null ? Set.of() : Set.copyOf(touched);
+    }
+
+    /**
+     * @return The URIs of the properties this index covers.
+     */
+    public Collection<String> indexedProperties() {
+        return fields.keySet();
+    }
+
+    /**
+     * Indexes every product (subject typed schema:Product) in the model, replacing what was indexed for it.
+     */
+    public void putAll(Model products) {
+        products.listSubjectsWithProperty(RDF.type, RdfConversionService.SCHEMA_Product).forEachRemaining(product -> {
+            if (!product.isURIResource()) return;
+            if (touched != null) touched.add(product.getURI());
+            fields.forEach((propertyUri, field) -> field.put(product.getURI(), text(product, products.createProperty(propertyUri))));
+        });
+    }
+
+    /**
+     * Re-indexes the given products from the model: those that are products there are indexed again, the
+     * others removed.
+     */
+    public void reindex(Model store, Collection<String> productUris) {
+        for (String productUri : productUris) {
+            Resource product = store.createResource(productUri);
+            if (store.contains(product, RDF.type, RdfConversionService.SCHEMA_Product)) {
+                fields.forEach((propertyUri, field) -> field.put(productUri, text(product, store.createProperty(propertyUri))));
+            } else {
+                remove(productUri);
+            }
+        }
+    }
+
+    public void remove(String productUri) {
+        if (touched != null) touched.add(productUri);
+        fields.values().forEach(field -> field.remove(productUri));
+    }
+
+    /**
+     * @param propertyUri One of {@link #indexedProperties()}, or null to match any of them.
+     * @return The URIs of the products whose text matches every token of the keyword; empty if the keyword
+     * has no tokens or the property is not indexed.
+     */
+    public Set<String> search(String keyword, String propertyUri) {
+        Set<String> tokens = tokenize(keyword);
+        if (tokens.isEmpty()) return Set.of();
+        List<Field> searched = new ArrayList<>();
+        if (propertyUri == null) {
+            searched.addAll(fields.values());
+        } else if (fields.containsKey(propertyUri)) {
+            searched.add(fields.get(propertyUri));
+        }
+
+        Set<String> matches = new HashSet<>();
+        for (Field field : searched) {
+            Set<String> inField = null;
+            for (String token : tokens) {
+                Set<String> withToken = field.withTokenPrefix(token);
+                if (inField == null) {
+                    inField = withToken;
+                } else {
+                    inField.retainAll(withToken);
+                }
+                if (inField.isEmpty()) break;
+            }
+            matches.addAll(inField);
+        }
+        return matches;
+    }
+
+    /**
+     * Answers {@link #search(String, String)} by reading every product in the model, for when no complete
+     * index is available.
+     */
+    public static Set<String> scan(Model products, String keyword, String propertyUri) {
+        Set<String> keywordTokens = tokenize(keyword);
+        if (keywordTokens.isEmpty()) return Set.of();
+        List<Property> searched = new ArrayList<>();
+        for (String indexed : List.of(RdfConversionService.SCHEMA_name.getURI(), RdfConversionService.SCHEMA_description.getURI())) {
+            if (propertyUri == null || propertyUri.equals(indexed)) searched.add(products.createProperty(indexed));
+        }
+
+        Set<String> matches = new HashSet<>();
+        products.listSubjectsWithProperty(RDF.type, RdfConversionService.SCHEMA_Product).forEachRemaining(product -> {
+            if (!product.isURIResource()) return;
+            for (Property property : searched) {
+                Set<String> textTokens = tokenize(text(product, property));
+                boolean all = keywordTokens.stream().allMatch(prefix -> textTokens.stream().anyMatch(token -> token.startsWith(prefix)));
+                if (all) {
+                    matches.add(product.getURI());
+                    return;
+                }
+            }
+        });
+        return matches;
+    }
+
+    private static String text(Resource product, Property property) {
+        StringBuilder text = new StringBuilder();
+        product.listProperties(property).forEachRemaining((Statement statement) -> {
+            if (statement.getObject().isLiteral()) text.append(statement.getString()).append(' ');
+        });
+        return text.toString();
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) return tokens;
+        for (String token : NON_WORD.split(TextTokenizer.normalize(text))) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
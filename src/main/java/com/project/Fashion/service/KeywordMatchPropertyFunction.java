@@ -0,0 +1,82 @@
+package com.project.Fashion.service;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.QueryBuildException;
+import org.apache.jena.query.QueryExecException;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper;
+import org.apache.jena.sparql.pfunction.PropFuncArg;
+import org.apache.jena.sparql.pfunction.PropertyFunctionBase;
+import org.apache.jena.sparql.util.IterLib;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * SPARQL property function {@code fash:keywordMatch}, answered from the {@link KeywordIndex}:
+ * <pre>
+ * ?product fash:keywordMatch "cotton shirt" .                       # name or description
+ * ?product fash:keywordMatch ("cotton shirt" schema:description) .  # one property only
+ * </pre>
+ * With an unbound subject it binds ?product to every matching product, so it should come first in the
+ * pattern; with a bound subject it is a membership test. While the index is still being built at startup,
+ * the products in the queried graph are scanned instead.
+ */
+public class KeywordMatchPropertyFunction extends PropertyFunctionBase {
+
+    public static final String LOCAL_NAME = "keywordMatch";
+
+    private final Supplier<KeywordIndex> index;
+
+    public KeywordMatchPropertyFunction(Supplier<KeywordIndex> index) {
+        this.index = index;
+    }
+
+    @Override
+    public void build(PropFuncArg argSubject, Node predicate, PropFuncArg argObject, ExecutionContext execCxt) {
+        super.build(argSubject, predicate, argObject, execCxt);
+        if (argSubject.isList()) throw new QueryBuildException(LOCAL_NAME + ": the subject must be a single node");
+        if (argObject.isList() && (argObject.getArgListSize() < 1 || argObject.getArgListSize() > 2)) {
+            throw new QueryBuildException(LOCAL_NAME + ": the object must be a keyword or (keyword property)");
+        }
+    }
+
+    @Override
+    public QueryIterator exec(Binding binding, PropFuncArg argSubject, Node predicate, PropFuncArg argObject, ExecutionContext execCxt) {
+        Node keyword = resolve(argObject.isList() ? argObject.getArg(0) : argObject.getArg(), binding);
+        Node property = argObject.isList() && argObject.getArgListSize() == 2 ? resolve(argObject.getArg(1), binding) : null;
+        if (!keyword.isLiteral()) throw new QueryExecException(LOCAL_NAME + ": the keyword must be a literal, got " + keyword);
+        if (property != null && !property.isURI()) throw new QueryExecException(LOCAL_NAME + ": the property must be a URI, got " + property);
+
+        KeywordIndex current = index.get();
+        String propertyUri = property != null ? property.getURI() : null;
+        Set<String> products = current.isComplete()
+                ? current.search(keyword.getLiteralLexicalForm(), propertyUri)
+                : KeywordIndex.scan(ModelFactory.createModelForGraph(execCxt.getActiveGraph()), keyword.getLiteralLexicalForm(), propertyUri);
+        Node subject = resolve(argSubject.getArg(), binding);
+        if (!subject.isVariable()) {
+            boolean matches = subject.isURI() && products.contains(subject.getURI());
+            return matches ? IterLib.result(binding, execCxt) : IterLib.noResults(execCxt);
+        }
+        Var productVar = Var.alloc(subject);
+        Iterator<Binding> bindings = products.stream()
+                .map(uri -> BindingFactory.binding(binding, productVar, NodeFactory.createURI(uri)))
+                .iterator();
+        return QueryIterPlainWrapper.create(bindings, execCxt);
+    }
+
+    private static Node resolve(Node node, Binding binding) {
+        if (node.isVariable()) {
+            Node value = binding.get(Var.alloc(node));
+            if (value != null) return value;
+        }
+        return node;
+    }
+}
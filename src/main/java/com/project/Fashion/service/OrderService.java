@@ -1,5 +1,6 @@
 package com.project.Fashion.service;
 
+import com.project.Fashion.dto.KeysetSliceDto;
 import com.project.Fashion.dto.OrderRequestDto;
 import com.project.Fashion.dto.OrderResponseDto;
 import com.project.Fashion.exception.exceptions.*;
@@ -14,10 +15,16 @@ import com.project.Fashion.repository.DeliveryRepository;
 import com.project.Fashion.repository.OrderRepository;
 import com.project.Fashion.repository.ProductRepository;
 import com.project.Fashion.repository.UserRepository;
+import com.project.Fashion.util.KeysetCursor;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -56,6 +63,8 @@ public class OrderService {
             OrderStatus.COMPLETED
     );
 
+    private static final List<String> SCROLL_SORT_PROPERTIES = List.of("date", "total", "id");
+
     @Transactional(readOnly = true)
     public double getTotalSalesForAuthenticatedSeller() {
         User authenticatedSeller = getCurrentAuthenticatedUser();
@@ -145,6 +154,18 @@ public class OrderService {
         return userOrdersPage.map(this::convertToDto);
     }
 
+    /**
+     * Keyset variant of {@link #getOrdersByUserId}: continues after the cursor instead of using an offset,
+     * so deep slices of a long order history cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSliceDto<OrderResponseDto> scrollOrdersByUserId(String userId, int size, String sortBy, String sortDir, String after) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId + " when fetching orders."));
+        Specification<Order> spec = (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+        return scrollOrders(spec, size, sortBy, sortDir, after);
+    }
+
     @CacheEvict(value = "order", key = "#id")
     public OrderResponseDto updateOrder(Long id, OrderRequestDto orderRequestDto) {
         Order existingOrder = orderRepository.findById(id)
@@ -315,4 +336,28 @@ public class OrderService {
         Page<Order> ordersPage = orderRepository.findByProduct_Seller_Id(authenticatedSeller.getId(), pageable);
         return ordersPage.map(this::convertToDto);
     }
+
+    @Transactional(readOnly = true)
+    public KeysetSliceDto<OrderResponseDto> scrollOrdersForAuthenticatedSeller(int size, String sortBy, String sortDir, String after) {
+        User authenticatedSeller = getCurrentAuthenticatedUser();
+        if (!"SELLER".equalsIgnoreCase(authenticatedSeller.getRole())) {
+            log.warn("User {} with role {} attempted to access seller-specific orders.", authenticatedSeller.getEmail(), authenticatedSeller.getRole());
+            throw new AccessDeniedException("Only users with SELLER role can access this resource.");
+        }
+        String sellerId = authenticatedSeller.getId();
+        Specification<Order> spec = (root, query, cb) -> cb.equal(root.get("product").get("seller").get("id"), sellerId);
+        return scrollOrders(spec, size, sortBy, sortDir, after);
+    }
+
+    // Orders default to newest first; id is appended as tie-breaker (see KeysetCursor.sort) so the keyset is unique.
+    private KeysetSliceDto<OrderResponseDto> scrollOrders(Specification<Order> spec, int size, String sortBy, String sortDir, String after) {
+        Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        String sortProperty = StringUtils.hasText(sortBy) && SCROLL_SORT_PROPERTIES.contains(sortBy) ? sortBy : "date";
+        KeysetScrollPosition position = KeysetCursor.positionAfter(after, sortProperty, direction);
+        Window<Order> window = orderRepository.findBy(spec, q -> q
+                .sortBy(KeysetCursor.sort(sortProperty, direction))
+                .limit(KeysetCursor.clampSize(size))
+                .scroll(position));
+        return KeysetCursor.toSlice(window, this::convertToDto, sortProperty, direction);
+    }
 }
\ No newline at end of file
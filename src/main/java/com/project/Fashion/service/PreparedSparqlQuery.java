@@ -0,0 +1,105 @@
+package com.project.Fashion.service;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.Transformer;
+import org.apache.jena.sparql.algebra.op.OpSlice;
+import org.apache.jena.sparql.algebra.optimize.TransformTopN;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Substitute;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.engine.main.QC;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A SPARQL SELECT that is parsed and compiled to optimized algebra once, then executed many times.
+ * <p>
+ * Parameters are template variables (e.g. {@code ?category}) replaced by string literals in the compiled
+ * algebra at execution time, so a value can never change the structure of the query the way text
+ * spliced into the query string can. LIMIT and OFFSET are applied the same way; the template must not
+ * have its own. Execution runs the algebra directly, without parsing or optimizing again.
+ */
+public final class PreparedSparqlQuery {
+
+    private final String queryString;
+    private final List<String> resultVars;
+    private final Op op;
+
+    public PreparedSparqlQuery(String queryString) {
+        Query query = QueryFactory.create(queryString);
+        if (!query.isSelectType() || query.hasLimit() || query.hasOffset()) {
+            throw new IllegalArgumentException("Prepared queries must be SELECT queries without LIMIT or OFFSET: " + queryString);
+        }
+        this.queryString = queryString;
+        this.resultVars = List.copyOf(query.getResultVars());
+        this.op = Algebra.optimize(Algebra.compile(query));
+    }
+
+    public String queryString() {
+        return queryString;
+    }
+
+    /**
+     * Runs the query against the model, which must be readable for the whole call.
+     *
+     * @param parameters Template variable name (without "?") to value, bound as a string literal.
+     * @param limit      Maximum rows, or {@link Query#NOLIMIT}.
+     * @return One map per row from result variable to the literal's lexical form or the resource's URI.
+     */
+    public List<Map<String, String>> execute(Model model, Map<String, String> parameters, long limit, long offset) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        forEachRow(model, parameters, limit, offset, rows::add);
+        return rows;
+    }
+
+    /**
+     * Like {@link #execute(Model, Map, long, long)}, but hands each row to the consumer as it is produced
+     * instead of collecting them.
+     */
+    public void forEachRow(Model model, Map<String, String> parameters, long limit, long offset, Consumer<Map<String, String>> consumer) {
+        BindingBuilder values = BindingFactory.builder();
+        parameters.forEach((name, value) -> values.add(Var.alloc(name), NodeFactory.createLiteral(value)));
+        Op bound = Substitute.substitute(op, values.build());
+        if (limit != Query.NOLIMIT || offset > 0) {
+            // Only the slice is new, so rewriting ORDER BY + LIMIT to a top-N sort is the one optimization left.
+            bound = Transformer.transform(new TransformTopN(), new OpSlice(bound, offset > 0 ? offset : Query.NOLIMIT, limit));
+        }
+
+        ExecutionContext context = new ExecutionContext(DatasetGraphFactory.wrap(model.getGraph()));
+        QueryIterator iterator = QC.execute(bound, BindingFactory.root(), context);
+        try {
+            while (iterator.hasNext()) {
+                Binding binding = iterator.next();
+                Map<String, String> row = new HashMap<>();
+                for (String var : resultVars) {
+                    row.put(var, lexicalForm(binding.get(Var.alloc(var))));
+                }
+                consumer.accept(row);
+            }
+        } finally {
+            iterator.close();
+        }
+    }
+
+    private static String lexicalForm(Node node) {
+        if (node == null) return null;
+        if (node.isLiteral()) return node.getLiteralLexicalForm();
+        if (node.isURI()) return node.getURI();
+        return node.toString();
+    }
+}
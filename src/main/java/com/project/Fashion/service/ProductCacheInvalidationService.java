@@ -0,0 +1,107 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.config.CacheConfig;
+import com.project.Fashion.config.ProductListCache;
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.event.ProductsImportedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Evicts product-related cache entries after a product change has been committed.
+ * Instead of clearing whole caches, only the entries a change can affect are removed:
+ * the product itself, the listing pages selected by {@link ProductListCache}, the pages of the
+ * owning seller and the price range only if a price moved.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductCacheInvalidationService {
+
+    private final CacheManager cacheManager;
+    private final UserRepository userRepository;
+
+    // After the in-memory catalog structures (order 0), so a cache miss right after eviction sees the new data.
+    @Order(10)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Cache products = cacheManager.getCache("products");
+        if (products != null) products.evict(event.productId());
+
+        Cache productsList = cacheManager.getCache(CacheConfig.PRODUCTS_LIST);
+        if (productsList instanceof ProductListCache listCache) {
+            int evicted = listCache.evictAffectedBy(event);
+            log.debug("Product {} changed; evicted {} cached listing pages.", event.productId(), evicted);
+        } else if (productsList != null) {
+            productsList.clear();
+        }
+
+        if (priceChanged(event.before(), event.after())) {
+            Cache priceRange = cacheManager.getCache("productPriceRange");
+            if (priceRange != null) priceRange.clear();
+        }
+
+        evictSellerPages(Arrays.asList(event.before(), event.after()));
+    }
+
+    /**
+     * A bulk import can add products to almost any listing page, so the listing and price range caches
+     * are cleared once for the whole import rather than evaluated per product.
+     */
+    @Order(10)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        for (String cacheName : new String[]{CacheConfig.PRODUCTS_LIST, "productPriceRange"}) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) cache.clear();
+        }
+        evictSellerPages(event.products());
+        log.debug("{} products imported for seller {}; listing caches cleared.", event.products().size(), event.sellerId());
+    }
+
+    private static boolean priceChanged(ProductSnapshot before, ProductSnapshot after) {
+        return before == null || after == null || Float.compare(before.price(), after.price()) != 0;
+    }
+
+    /**
+     * sellerProducts is keyed by page, size, sort and the seller's email (the authentication name),
+     * so the affected entries are found by comparing the last key element.
+     */
+    @SuppressWarnings("unchecked")
+    private void evictSellerPages(Collection<ProductSnapshot> changed) {
+        Cache sellerProducts = cacheManager.getCache("sellerProducts");
+        if (sellerProducts == null) return;
+        if (!(sellerProducts.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            sellerProducts.clear();
+            return;
+        }
+        Set<String> sellerIds = new HashSet<>();
+        for (ProductSnapshot snapshot : changed) {
+            if (snapshot != null && snapshot.sellerId() != null) sellerIds.add(snapshot.sellerId());
+        }
+        Set<String> sellerEmails = new HashSet<>();
+        sellerIds.forEach(sellerId -> userRepository.findById(sellerId).ifPresent(seller -> sellerEmails.add(seller.getEmail())));
+        if (sellerEmails.isEmpty()) {
+            sellerProducts.clear();
+            return;
+        }
+        Map<Object, Object> entries = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).asMap();
+        entries.keySet().removeIf(key -> key instanceof List<?> parts && !parts.isEmpty()
+                && sellerEmails.contains(Objects.toString(parts.get(parts.size() - 1))));
+    }
+}
@@ -0,0 +1,323 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.dto.ProductFacetsDto;
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.event.ProductsImportedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Column-oriented, in-memory copy of the filterable and sortable product attributes.
+ * <p>
+ * Products are stored as parallel primitive arrays (price, rating, review count, category ordinal) plus
+ * one bitmap per category and one for products without reviews. Each sortable property has a
+ * pre-sorted permutation of row numbers, so a listing query is a few bitmap operations, a scan of the
+ * numeric columns over the surviving rows and a walk over the permutation until the page is filled.
+ * The database is only asked for the rows of the resulting page.
+ * <p>
+ * Writes go to a map of snapshots kept in sync from committed {@link ProductChangedEvent}s. The column
+ * arrays are immutable and rebuilt before the change listener returns, so the listeners that run after it
+ * (cache eviction, the catalog version) already see the change; reads keep using the previous columns
+ * until the new ones are published and never wait for a rebuild. Writers arriving while a rebuild runs
+ * share the next one. Changes committed during the initial load are queued and applied on top of the
+ * loaded snapshot.
+ * Callers must check {@link #isReady()} and use the JPA query otherwise.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductCatalogEngine {
+
+    private final ProductRepository productRepository;
+
+    @Value("${fashion.catalog.in-memory.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Long, ProductSnapshot> products = new ConcurrentHashMap<>();
+    // Guards loaded and changesDuringLoad, so no change falls between the replay and the switch to live updates.
+    private final Object loadLock = new Object();
+    private final List<Runnable> changesDuringLoad = new ArrayList<>();
+    // Number of changes applied to products since the load; each Columns records how many it contains.
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private final Object rebuildLock = new Object();
+    private volatile Columns columns;
+    private volatile boolean loaded;
+
+    /**
+     * Filters applied by the product listing. {@code restrictToIds}, if not null, limits the result to
+     * the given products (e.g. the hits of a full-text search).
+     */
+    public record CatalogQuery(String category, Float minPrice, Float maxPrice, Float minRating,
+                               Boolean noReviews, Collection<Long> restrictToIds) {
+    }
+
+    public record CatalogPage(List<Long> ids, long totalElements) {
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadFromDatabase() {
+        if (!enabled) {
+            log.info("In-memory product catalog is disabled; listings are served by the database.");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<ProductSnapshot> snapshots = productRepository.findAllSnapshots();
+        synchronized (loadLock) {
+            products.clear();
+            snapshots.forEach(snapshot -> products.put(snapshot.id(), snapshot));
+            // Replayed in commit order; a change the snapshot already contains is applied again, which is harmless.
+            changesDuringLoad.forEach(Runnable::run);
+            if (!changesDuringLoad.isEmpty()) log.info("Applied {} product changes committed during the catalog load.", changesDuringLoad.size());
+            changesDuringLoad.clear();
+            columns = new Columns(new ArrayList<>(products.values()), appliedChanges.get());
+            loaded = true;
+        }
+        log.info("In-memory product catalog loaded with {} products in {} ms.", products.size(), System.currentTimeMillis() - start);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        apply(() -> {
+            if (event.isDeleted()) {
+                products.remove(event.productId());
+            } else {
+                products.put(event.productId(), event.after());
+            }
+        });
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        apply(() -> event.products().forEach(product -> products.put(product.id(), product)));
+    }
+
+    private void apply(Runnable change) {
+        if (!enabled) return;
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) {
+                    changesDuringLoad.add(change);
+                    return;
+                }
+            }
+        }
+        change.run();
+        publishColumnsWith(appliedChanges.incrementAndGet());
+    }
+
+    /**
+     * Rebuilds the columns unless a rebuild that started after the given change has already published them;
+     * writers waiting on the lock meanwhile are then covered by one rebuild instead of one each.
+     */
+    private void publishColumnsWith(long change) {
+        synchronized (rebuildLock) {
+            if (columns.version >= change) return;
+            long start = System.nanoTime();
+            // Read before the products, so every change counted here is in the copy.
+            long version = appliedChanges.get();
+            Columns rebuilt = new Columns(new ArrayList<>(products.values()), version);
+            columns = rebuilt;
+            log.debug("Product catalog columns rebuilt for {} products in {} µs.", rebuilt.ids.length, (System.nanoTime() - start) / 1000);
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && loaded;
+    }
+
+    /**
+     * @param sortProperty One of name, price, averageRating or id.
+     * @return The ids of the requested page in sort order and the total number of matches.
+     */
+    public CatalogPage findPage(CatalogQuery query, String sortProperty, Sort.Direction direction, int offset, int limit) {
+        Columns current = currentColumns();
+        BitSet matches = current.filter(query);
+        int total = matches.cardinality();
+        List<Long> ids = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+        int[] permutation = current.permutation(sortProperty);
+        int skipped = 0;
+        for (int i = 0; i < permutation.length && ids.size() < limit; i++) {
+            int row = permutation[direction == Sort.Direction.DESC ? permutation.length - 1 - i : i];
+            if (!matches.get(row)) continue;
+            if (skipped++ < offset) continue;
+            ids.add(current.ids[row]);
+        }
+        return new CatalogPage(ids, total);
+    }
+
+    /**
+     * @return The ids of all matching products, in no particular order.
+     */
+    public List<Long> findIds(CatalogQuery query) {
+        Columns current = currentColumns();
+        BitSet matches = current.filter(query);
+        List<Long> ids = new ArrayList<>(matches.cardinality());
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            ids.add(current.ids[row]);
+        }
+        return ids;
+    }
+
+    /**
+     * Counts the facets of all matching products in one pass over the filtered rows.
+     */
+    public ProductFacetsDto computeFacets(CatalogQuery query) {
+        Columns current = currentColumns();
+        BitSet matches = current.filter(query);
+        ProductFacetCounter counter = new ProductFacetCounter();
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            counter.add(current.categoryNames.get(current.categoryOrdinals[row]),
+                    current.prices[row], current.ratings[row], current.reviewCounts[row]);
+        }
+        return counter.toDto();
+    }
+
+    private Columns currentColumns() {
+        return columns;
+    }
+
+    private static final class Columns {
+        private final long version;
+        private final long[] ids;
+        private final float[] prices;
+        private final float[] ratings;
+        private final int[] reviewCounts;
+        private final int[] categoryOrdinals;
+        private final Map<String, Integer> categoryDictionary = new HashMap<>();
+        private final List<BitSet> categoryBitmaps = new ArrayList<>();
+        private final List<String> categoryNames = new ArrayList<>();
+        private final BitSet noReviews;
+        private final Map<Long, Integer> rowById;
+        private final Map<String, int[]> permutations = new LinkedHashMap<>();
+
+        private Columns(List<ProductSnapshot> snapshots, long version) {
+            this.version = version;
+            // Rows in id order: the id permutation is the identity and row order breaks ties by id.
+            snapshots.sort(Comparator.comparingLong(ProductSnapshot::id));
+            int n = snapshots.size();
+            ids = new long[n];
+            prices = new float[n];
+            ratings = new float[n];
+            reviewCounts = new int[n];
+            categoryOrdinals = new int[n];
+            noReviews = new BitSet(n);
+            rowById = new HashMap<>(n * 2);
+            String[] names = new String[n];
+            for (int row = 0; row < n; row++) {
+                ProductSnapshot p = snapshots.get(row);
+                ids[row] = p.id();
+                prices[row] = p.price();
+                ratings[row] = p.averageRating();
+                reviewCounts[row] = p.numOfReviews();
+                names[row] = p.name() != null ? p.name() : "";
+                String category = p.category() != null ? p.category().toLowerCase(Locale.ROOT) : "";
+                int ordinal = categoryDictionary.computeIfAbsent(category, c -> {
+                    categoryNames.add(p.category() != null ? p.category() : "");
+                    categoryBitmaps.add(new BitSet(n));
+                    return categoryBitmaps.size() - 1;
+                });
+                categoryOrdinals[row] = ordinal;
+                categoryBitmaps.get(ordinal).set(row);
+                if (p.numOfReviews() == 0) noReviews.set(row);
+                rowById.put(p.id(), row);
+            }
+            permutations.put("id", sortedRows(n, (a, b) -> 0));
+            permutations.put("price", sortedRows(n, (a, b) -> Float.compare(prices[a], prices[b])));
+            permutations.put("averageRating", sortedRows(n, (a, b) -> Float.compare(ratings[a], ratings[b])));
+            permutations.put("name", sortedRows(n, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(names[a], names[b])));
+        }
+
+        /**
+         * Row numbers sorted by the comparator with a bottom-up merge sort on int arrays. Stable, so equal
+         * rows stay in id order.
+         */
+        private static int[] sortedRows(int n, IntBinaryOperator comparator) {
+            int[] rows = new int[n];
+            for (int row = 0; row < n; row++) rows[row] = row;
+            int[] merged = new int[n];
+            for (int width = 1; width < n; width *= 2) {
+                for (int lo = 0; lo < n; lo += 2 * width) {
+                    int mid = Math.min(lo + width, n);
+                    int hi = Math.min(lo + 2 * width, n);
+                    int left = lo;
+                    int right = mid;
+                    for (int out = lo; out < hi; out++) {
+                        if (right >= hi || (left < mid && comparator.applyAsInt(rows[left], rows[right]) <= 0)) {
+                            merged[out] = rows[left++];
+                        } else {
+                            merged[out] = rows[right++];
+                        }
+                    }
+                }
+                int[] swap = rows;
+                rows = merged;
+                merged = swap;
+            }
+            return rows;
+        }
+
+        private int[] permutation(String sortProperty) {
+            return permutations.getOrDefault(sortProperty, permutations.get("name"));
+        }
+
+        private BitSet filter(CatalogQuery query) {
+            BitSet result;
+            if (StringUtils.hasText(query.category())) {
+                Integer ordinal = categoryDictionary.get(query.category().toLowerCase(Locale.ROOT));
+                if (ordinal == null) return new BitSet();
+                result = (BitSet) categoryBitmaps.get(ordinal).clone();
+            } else {
+                result = new BitSet(ids.length);
+                result.set(0, ids.length);
+            }
+            if (query.restrictToIds() != null) {
+                BitSet allowed = new BitSet(ids.length);
+                for (Long id : query.restrictToIds()) {
+                    Integer row = rowById.get(id);
+                    if (row != null) allowed.set(row);
+                }
+                result.and(allowed);
+            }
+            boolean noReviewsOnly = query.noReviews() != null && query.noReviews();
+            if (noReviewsOnly) result.and(noReviews);
+
+            float minPrice = query.minPrice() != null ? query.minPrice() : Float.NEGATIVE_INFINITY;
+            float maxPrice = query.maxPrice() != null ? query.maxPrice() : Float.POSITIVE_INFINITY;
+            float minRating = !noReviewsOnly && query.minRating() != null && query.minRating() > 0 ? query.minRating() : Float.NEGATIVE_INFINITY;
+            if (query.minPrice() != null || query.maxPrice() != null || minRating != Float.NEGATIVE_INFINITY) {
+                for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+                    if (prices[row] < minPrice || prices[row] > maxPrice || ratings[row] < minRating) result.clear(row);
+                }
+            }
+            return result;
+        }
+    }
+}
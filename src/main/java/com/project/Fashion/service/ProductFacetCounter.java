@@ -0,0 +1,64 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.dto.FacetBucketDto;
+import com.project.Fashion.dto.ProductFacetsDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Accumulates the listing facets in a single pass over the matching products.
+ * Shared by the in-memory catalog and the JPA fallback so both report identical buckets.
+ */
+final class ProductFacetCounter {
+
+    private static final float[] PRICE_EDGES = {0f, 25f, 50f, 100f, 200f, 500f};
+    private static final int[] RATING_THRESHOLDS = {4, 3, 2, 1};
+
+    private final Map<String, Long> categories = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final long[] priceCounts = new long[PRICE_EDGES.length];
+    private final long[] ratingCounts = new long[RATING_THRESHOLDS.length];
+    private long noReviews;
+    private float minPrice = Float.POSITIVE_INFINITY;
+    private float maxPrice = Float.NEGATIVE_INFINITY;
+
+    void add(String category, float price, float averageRating, int numOfReviews) {
+        categories.merge(category != null ? category : "", 1L, Long::sum);
+
+        int bucket = PRICE_EDGES.length - 1;
+        while (bucket > 0 && price < PRICE_EDGES[bucket]) bucket--;
+        priceCounts[bucket]++;
+        minPrice = Math.min(minPrice, price);
+        maxPrice = Math.max(maxPrice, price);
+
+        if (numOfReviews == 0) {
+            noReviews++;
+        }
+        for (int i = 0; i < RATING_THRESHOLDS.length; i++) {
+            if (averageRating >= RATING_THRESHOLDS[i]) ratingCounts[i]++;
+        }
+    }
+
+    ProductFacetsDto toDto() {
+        List<FacetBucketDto> priceRanges = new ArrayList<>(PRICE_EDGES.length);
+        for (int i = 0; i < PRICE_EDGES.length; i++) {
+            boolean last = i == PRICE_EDGES.length - 1;
+            String label = last ? format(PRICE_EDGES[i]) + "+" : format(PRICE_EDGES[i]) + "-" + format(PRICE_EDGES[i + 1]);
+            priceRanges.add(new FacetBucketDto(label, PRICE_EDGES[i], last ? null : PRICE_EDGES[i + 1], priceCounts[i]));
+        }
+        List<FacetBucketDto> ratings = new ArrayList<>(RATING_THRESHOLDS.length + 1);
+        for (int i = 0; i < RATING_THRESHOLDS.length; i++) {
+            ratings.add(new FacetBucketDto(RATING_THRESHOLDS[i] + "+", (float) RATING_THRESHOLDS[i], null, ratingCounts[i]));
+        }
+        ratings.add(new FacetBucketDto("No reviews", null, null, noReviews));
+        boolean empty = minPrice > maxPrice;
+        return new ProductFacetsDto(new TreeMap<>(categories), priceRanges, ratings,
+                empty ? null : minPrice, empty ? null : maxPrice);
+    }
+
+    private static String format(float value) {
+        return value == (long) value ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
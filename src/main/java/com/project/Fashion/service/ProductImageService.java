@@ -0,0 +1,181 @@
+package com.project.Fashion.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves product images for serving without reading them onto the heap.
+ * <p>
+ * Images are returned as {@link Resource}s, so Spring MVC streams them with a small buffer and answers
+ * Range requests with resource regions. Files requested often are memory-mapped and kept in a cache
+ * bounded by total size; serving those needs no file open or read call. Every lookup checks size and
+ * modification time, so a replaced file is never served from a stale mapping.
+ */
+@Service
+@Slf4j
+public class ProductImageService {
+
+    /**
+     * An image ready to be served, with the validators for conditional requests.
+     */
+    public record ImageFile(Resource resource, MediaType contentType, String eTag, long lastModified) {
+    }
+
+    private record MappedImage(ByteBuffer content, long size, long lastModified) {
+    }
+
+    private final ImageStorageService imageStorageService;
+    private final Cache<String, MappedImage> hotImages;
+    private final Cache<String, AtomicInteger> hits;
+    private final long maxMappedFileBytes;
+    private final int minHitsToMap;
+
+    public ProductImageService(ImageStorageService imageStorageService,
+                               @Value("${fashion.images.hot-cache.max-bytes:67108864}") long maxMappedBytes,
+                               @Value("${fashion.images.hot-cache.max-file-bytes:5242880}") long maxMappedFileBytes,
+                               @Value("${fashion.images.hot-cache.min-hits:3}") int minHitsToMap) {
+        this.imageStorageService = imageStorageService;
+        // Evicted mappings are released by the garbage collector; the bound keeps the mapped total in check.
+        this.hotImages = Caffeine.newBuilder()
+                .maximumWeight(maxMappedBytes)
+                .weigher((String name, MappedImage image) -> (int) Math.min(Integer.MAX_VALUE, image.size()))
+                .build();
+        this.hits = Caffeine.newBuilder().maximumSize(10_000).build();
+        this.maxMappedFileBytes = maxMappedFileBytes;
+        this.minHitsToMap = minHitsToMap;
+    }
+
+    /**
+     * @return The image type for a filename, or null if it is not a PNG or JPEG name.
+     */
+    public static MediaType contentTypeOf(String filename) {
+        String lowerFilename = filename.toLowerCase(Locale.ROOT);
+        if (lowerFilename.endsWith(".png")) return MediaType.IMAGE_PNG;
+        if (lowerFilename.endsWith(".jpg") || lowerFilename.endsWith(".jpeg")) return MediaType.IMAGE_JPEG;
+        return null;
+    }
+
+    /**
+     * @return The image, or empty if there is no such file in the image directory.
+     */
+    public Optional<ImageFile> find(String filename, MediaType contentType) throws IOException {
+        Path path = imageStorageService.resolve(filename);
+        if (path == null || !Files.isRegularFile(path)) return Optional.empty();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Strong validator, so clients may also resume downloads with If-Range.
+        String eTag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+
+        MappedImage mapped = hotImages.getIfPresent(filename);
+        if (mapped != null && (mapped.size() != size || mapped.lastModified() != lastModified)) {
+            hotImages.invalidate(filename);
+            mapped = null;
+        }
+        if (mapped == null && size <= maxMappedFileBytes && isHot(filename)) {
+            mapped = map(path, size, lastModified);
+            hotImages.put(filename, mapped);
+            log.debug("Image {} ({} bytes) memory-mapped for serving.", filename, size);
+        }
+        Resource resource = mapped != null ? new MappedImageResource(filename, mapped) : new FileSystemResource(path);
+        return Optional.of(new ImageFile(resource, contentType, eTag, lastModified));
+    }
+
+    private boolean isHot(String filename) {
+        return hits.get(filename, name -> new AtomicInteger()).incrementAndGet() >= minHitsToMap;
+    }
+
+    private static MappedImage map(Path path, long size, long lastModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new MappedImage(buffer.asReadOnlyBuffer(), size, lastModified);
+        }
+    }
+
+    /**
+     * Resource over a memory-mapped image. Every stream gets its own view of the buffer and skips by
+     * moving the position, which keeps Range requests cheap.
+     */
+    private static final class MappedImageResource extends AbstractResource {
+
+        private final String filename;
+        private final MappedImage image;
+
+        private MappedImageResource(String filename, MappedImage image) {
+            this.filename = filename;
+            this.image = image;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            ByteBuffer view = image.content().duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) {
+                    if (length == 0) return 0;
+                    if (!view.hasRemaining()) return -1;
+                    int count = Math.min(length, view.remaining());
+                    view.get(bytes, offset, count);
+                    return count;
+                }
+
+                @Override
+                public long skip(long n) {
+                    int count = (int) Math.max(0, Math.min(n, view.remaining()));
+                    view.position(view.position() + count);
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return view.remaining();
+                }
+            };
+        }
+
+        @Override
+        public long contentLength() {
+            return image.size();
+        }
+
+        @Override
+        public long lastModified() {
+            return image.lastModified();
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getDescription() {
+            return "memory-mapped image [" + filename + "]";
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.event.ProductsImportedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Writes the {@link ImageVariant}s of product images in the background, so upload requests return as soon
+ * as the original is stored.
+ * <p>
+ * Each image is decoded once; the largest variant is scaled from the original and each smaller one from
+ * the previous variant. Work runs on virtual threads, with a semaphore bounding how many images are
+ * decoded at once (a decoded 12 MP image takes about 48 MB). Variants are written to a temporary file and
+ * moved into place, so the image endpoint never serves a partial file; until a variant exists the
+ * endpoint falls back to the original.
+ * <p>
+ * Triggered by committed product changes that set a new photo, by imports, and once at startup for
+ * images that have no variants yet.
+ */
+@Service
+@Slf4j
+public class ProductImageVariantService implements DisposableBean {
+
+    private final ImageStorageService imageStorageService;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("image-variants-", 0).factory());
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Originals that could not be decoded, with their modification time, so they are not retried on every request.
+    private final Map<String, Long> failed = new ConcurrentHashMap<>();
+    private final Semaphore decodePermits;
+    private final float jpegQuality;
+    private final long maxPixels;
+
+    public ProductImageVariantService(ImageStorageService imageStorageService,
+                                      @Value("${fashion.images.variants.concurrency:2}") int concurrency,
+                                      @Value("${fashion.images.variants.jpeg-quality:0.8}") float jpegQuality,
+                                      @Value("${fashion.images.variants.max-pixels:40000000}") long maxPixels) {
+        this.imageStorageService = imageStorageService;
+        this.decodePermits = new Semaphore(Math.max(1, concurrency));
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) return;
+        String photoUrl = event.after().photoUrl();
+        if (event.before() == null || !Objects.equals(event.before().photoUrl(), photoUrl)) {
+            submit(ImageVariant.originalFilenameOf(photoUrl));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        for (ProductSnapshot product : event.products()) {
+            submit(ImageVariant.originalFilenameOf(product.photoUrl()));
+        }
+    }
+
+    @Order(20)
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissingVariantsOnStartup() {
+        executor.execute(() -> {
+            Path root = imageStorageService.root();
+            if (!Files.isDirectory(root)) return;
+            // The root holds the older, flat images; content-addressed ones are two shard levels below it.
+            try (Stream<Path> files = Files.walk(root, 3)) {
+                List<String> pending = files.filter(Files::isRegularFile)
+                        .filter(path -> path.equals(imageStorageService.resolve(path.getFileName().toString())))
+                        .map(path -> path.getFileName().toString())
+                        .filter(name -> ProductImageService.contentTypeOf(name) != null && !ImageVariant.isVariantFile(name))
+                        .filter(this::needsVariants)
+                        .toList();
+                if (!pending.isEmpty()) log.info("Creating image variants for {} existing images.", pending.size());
+                pending.forEach(this::submit);
+            } catch (IOException e) {
+                log.warn("Could not list image directory {}: {}", root, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Queues the variants of an original image. Does nothing if the image is already queued.
+     */
+    public void submit(String filename) {
+        if (filename == null || !inFlight.add(filename)) return;
+        executor.execute(() -> {
+            try {
+                decodePermits.acquire();
+                try {
+                    if (needsVariants(filename)) createVariants(filename);
+                } finally {
+                    decodePermits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Could not create variants of image {}: {}", filename, e.getMessage());
+                recordFailure(filename);
+            } finally {
+                inFlight.remove(filename);
+            }
+        });
+    }
+
+    private boolean needsVariants(String filename) {
+        Path original = imageStorageService.resolve(filename);
+        if (original == null || !Files.isRegularFile(original)) return false;
+        // Content-addressed originals never change, so their existing variants are never stale.
+        boolean immutable = ImageStorageService.isContentAddressed(filename);
+        try {
+            long originalModified = Files.getLastModifiedTime(original).toMillis();
+            if (Long.valueOf(originalModified).equals(failed.get(filename))) return false;
+            for (ImageVariant variant : ImageVariant.values()) {
+                Path variantPath = imageStorageService.resolve(variant.fileNameFor(filename));
+                if (!Files.exists(variantPath)) return true;
+                if (!immutable && Files.getLastModifiedTime(variantPath).toMillis() < originalModified) return true;
+            }
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private void recordFailure(String filename) {
+        try {
+            failed.put(filename, Files.getLastModifiedTime(imageStorageService.resolve(filename)).toMillis());
+        } catch (IOException | RuntimeException ignored) {
+            // The original is gone; nothing to retry.
+        }
+    }
+
+    private void createVariants(String filename) throws IOException {
+        long start = System.currentTimeMillis();
+        Path original = imageStorageService.resolve(filename);
+        BufferedImage decoded = decode(original);
+        boolean jpegOriginal = MediaType.IMAGE_JPEG.equals(ProductImageService.contentTypeOf(filename));
+        BufferedImage image = decoded;
+        // Largest first, so each smaller variant is scaled from an already reduced image.
+        for (ImageVariant variant : List.of(ImageVariant.DETAIL, ImageVariant.CARD, ImageVariant.THUMBNAIL)) {
+            image = scaleToFit(image, variant.maxDimension());
+            boolean unscaled = image.getWidth() == decoded.getWidth() && image.getHeight() == decoded.getHeight();
+            writeJpeg(image, imageStorageService.resolve(variant.fileNameFor(filename)), jpegOriginal && unscaled ? original : null);
+        }
+        log.debug("Created variants of image {} in {} ms.", filename, System.currentTimeMillis() - start);
+    }
+
+    private BufferedImage decode(Path path) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) throw new IOException("unsupported image format");
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Checked from the header before decoding, so an oversized image cannot exhaust the heap.
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) throw new IOException("image has " + pixels + " pixels, more than " + maxPixels);
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales the image so its longest side is at most maxDimension, halving in steps so bilinear
+     * filtering does not skip source pixels. Always returns an opaque RGB image.
+     */
+    private static BufferedImage scaleToFit(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Writes the image as JPEG. If the image is a JPEG original at full size and recompressing it did not
+     * make it smaller, the original bytes are used instead.
+     */
+    private void writeJpeg(BufferedImage image, Path target, Path sameSizeJpegOriginal) throws IOException {
+        Path temporary = Files.createTempFile(target.getParent(), "variant", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temporary.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            if (sameSizeJpegOriginal != null && Files.size(temporary) >= Files.size(sameSizeJpegOriginal)) {
+                Files.copy(sameSizeJpegOriginal, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,391 @@
+package com.project.Fashion.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Fashion.dto.ProductCreateDto;
+import com.project.Fashion.dto.ProductImportErrorDto;
+import com.project.Fashion.dto.ProductImportReportDto;
+import com.project.Fashion.event.ProductsImportedEvent;
+import com.project.Fashion.exception.exceptions.InvalidFieldException;
+import com.project.Fashion.exception.exceptions.UserNotFoundException;
+import com.project.Fashion.model.Product;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.model.User;
+import com.project.Fashion.repository.ProductRepository;
+import com.project.Fashion.repository.UserRepository;
+import com.project.Fashion.util.CsvRecordReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import and export of a seller's products.
+ * <p>
+ * Imports are read row by row from an NDJSON or CSV stream and validated against the
+ * {@link ProductCreateDto} constraints. Valid rows are inserted with JDBC batch statements of
+ * {@link #BATCH_SIZE} rows, each batch in its own transaction. Caches, in-memory catalog structures and
+ * the RDF store are updated once at the end through a single {@link ProductsImportedEvent}. Rows that
+ * cannot be imported are reported with their row number.
+ * <p>
+ * Exports stream the seller's products from a database cursor straight into the response.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final List<String> IMPORT_COLUMNS = List.of("name", "description", "price", "category", "stock");
+    private static final List<String> EXPORT_COLUMNS = List.of("id", "name", "description", "price", "category", "stock",
+            "averageRating", "numOfReviews", "photoUrl");
+
+    private static final String INSERT_SQL = "INSERT INTO product (name, description, price, category, stock, seller_id, average_rating, num_of_reviews, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?)";
+    private static final String EXPORT_SQL = "SELECT id, name, description, price, category, stock, average_rating, num_of_reviews, photo_url " +
+            "FROM product WHERE seller_id = ? ORDER BY id";
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format fromMediaType(MediaType mediaType) {
+            if (mediaType != null && MediaType.parseMediaType(APPLICATION_NDJSON_VALUE).isCompatibleWith(mediaType)) return NDJSON;
+            if (mediaType != null && MediaType.parseMediaType(TEXT_CSV_VALUE).isCompatibleWith(mediaType)) return CSV;
+            throw new InvalidFieldException("Unsupported import format " + mediaType + "; use " + APPLICATION_NDJSON_VALUE + " or " + TEXT_CSV_VALUE + ".");
+        }
+
+        public static Format fromName(String name) {
+            try {
+                return Format.valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new InvalidFieldException("Unsupported export format '" + name + "'; use ndjson or csv.");
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private User getAuthenticatedSeller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new AccessDeniedException("User is not authenticated.");
+        }
+        User user = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new UserNotFoundException("Authenticated user not found in database. Email: " + authentication.getName()));
+        if (!"SELLER".equalsIgnoreCase(user.getRole())) {
+            throw new AccessDeniedException("Only SELLERs can import or export products.");
+        }
+        return user;
+    }
+
+    /**
+     * Imports products for the authenticated seller.
+     *
+     * @param body The request body, read incrementally.
+     * @return How many rows were imported and why the others were not.
+     */
+    public ProductImportReportDto importProducts(InputStream body, Format format) throws IOException {
+        User seller = getAuthenticatedSeller();
+        long start = System.currentTimeMillis();
+        ImportRun run = new ImportRun(seller);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } finally {
+            // Batches committed before a failure (e.g. a broken upload) must still reach caches and indexes.
+            if (!run.created.isEmpty()) {
+                eventPublisher.publishEvent(new ProductsImportedEvent(seller.getId(), List.copyOf(run.created)));
+            }
+        }
+        log.info("Bulk import by seller {}: {} rows, {} imported, {} failed in {} ms.",
+                seller.getEmail(), run.totalRows, run.created.size(), run.failed, System.currentTimeMillis() - start);
+        return new ProductImportReportDto(run.totalRows, run.created.size(), run.failed, run.errors, run.failed > run.errors.size());
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        int row = 0;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) continue;
+            run.totalRows++;
+            try {
+                run.accept(row, objectMapper.readValue(line, ProductCreateDto.class));
+            } catch (JsonProcessingException e) {
+                run.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = IMPORT_COLUMNS.stream().filter(column -> !columns.containsKey(column)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new InvalidFieldException("CSV header is missing the column(s): " + String.join(", ", missing) + ".");
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            int row = csv.recordLine();
+            run.totalRows++;
+            ProductCreateDto dto = new ProductCreateDto();
+            dto.setName(column(record, columns, "name"));
+            dto.setDescription(column(record, columns, "description"));
+            dto.setCategory(column(record, columns, "category"));
+            try {
+                String price = column(record, columns, "price");
+                dto.setPrice(price == null ? null : Float.parseFloat(price.trim()));
+                if (dto.getPrice() != null && !Float.isFinite(dto.getPrice())) throw new NumberFormatException();
+            } catch (NumberFormatException e) {
+                run.reject(row, "price: not a number.");
+                continue;
+            }
+            try {
+                String stock = column(record, columns, "stock");
+                dto.setStock(stock == null ? null : Integer.parseInt(stock.trim()));
+            } catch (NumberFormatException e) {
+                run.reject(row, "stock: not a whole number.");
+                continue;
+            }
+            run.accept(row, dto);
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < record.size() && StringUtils.hasLength(record.get(index)) ? record.get(index) : null;
+    }
+
+    // The same constraints @Valid applies to a ProductCreateDto request body.
+    private List<String> validate(ProductCreateDto dto) {
+        List<String> violations = new ArrayList<>();
+        for (ConstraintViolation<ProductCreateDto> violation : validator.validate(dto)) {
+            violations.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        // The validator returns an unordered set; sort so the report is the same on every run.
+        violations.sort(null);
+        return violations;
+    }
+
+    /**
+     * State of one import: the rows waiting for the next batch, the names already used in the file,
+     * the created products and the error report.
+     */
+    private final class ImportRun {
+
+        private final User seller;
+        private final List<Map.Entry<Integer, ProductCreateDto>> pending = new ArrayList<>(BATCH_SIZE);
+        private final Set<String> namesInFile = new HashSet<>();
+        private final List<ProductSnapshot> created = new ArrayList<>();
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+        private int totalRows;
+        private int failed;
+
+        private ImportRun(User seller) {
+            this.seller = seller;
+        }
+
+        private void accept(int row, ProductCreateDto dto) {
+            List<String> violations = validate(dto);
+            if (!violations.isEmpty()) {
+                reject(row, String.join("; ", violations));
+                return;
+            }
+            if (!namesInFile.add(dto.getName())) {
+                reject(row, "name: '" + dto.getName() + "' is used by an earlier row.");
+                return;
+            }
+            pending.add(Map.entry(row, dto));
+            if (pending.size() >= BATCH_SIZE) flush();
+        }
+
+        private void reject(int row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ProductImportErrorDto(row, message));
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) return;
+            Set<String> existing = new HashSet<>(productRepository.findExistingNames(
+                    pending.stream().map(entry -> entry.getValue().getName()).collect(Collectors.toList())));
+            List<Map.Entry<Integer, ProductCreateDto>> batch = new ArrayList<>(pending.size());
+            for (Map.Entry<Integer, ProductCreateDto> entry : pending) {
+                if (existing.contains(entry.getValue().getName())) {
+                    reject(entry.getKey(), "name: a product named '" + entry.getValue().getName() + "' already exists.");
+                } else {
+                    batch.add(entry);
+                }
+            }
+            pending.clear();
+            if (batch.isEmpty()) return;
+
+            try {
+                List<Product> products = insertBatch(seller, batch);
+                products.forEach(product -> created.add(ProductSnapshot.of(product)));
+            } catch (DataAccessException e) {
+                log.warn("Bulk import batch of {} rows for seller {} failed: {}", batch.size(), seller.getEmail(), e.getMessage());
+                String reason = "Could not be stored: " + e.getMostSpecificCause().getMessage();
+                batch.forEach(entry -> reject(entry.getKey(), reason));
+            }
+        }
+    }
+
+    /**
+     * Inserts one batch in its own transaction and returns the new products with their generated IDs.
+     */
+    private List<Product> insertBatch(User seller, List<Map.Entry<Integer, ProductCreateDto>> batch) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        // JDBC bypasses @UpdateTimestamp, so the timestamp the RDF sync relies on is set here.
+        Timestamp updatedAt = Timestamp.from(Instant.now());
+        transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProductCreateDto dto = batch.get(i).getValue();
+                        ps.setString(1, dto.getName());
+                        ps.setString(2, dto.getDescription());
+                        ps.setFloat(3, dto.getPrice());
+                        ps.setString(4, dto.getCategory());
+                        ps.setInt(5, dto.getStock());
+                        ps.setString(6, seller.getId());
+                        ps.setTimestamp(7, updatedAt);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keys));
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Product> products = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ProductCreateDto dto = batch.get(i).getValue();
+            Product product = new Product();
+            product.setId(((Number) generated.get(i).get("id")).longValue());
+            product.setName(dto.getName());
+            product.setDescription(dto.getDescription());
+            product.setPrice(dto.getPrice());
+            product.setCategory(dto.getCategory());
+            product.setStock(dto.getStock());
+            product.setSeller(seller);
+            product.setReviews(List.of());
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Streams all products of the authenticated seller, ordered by ID. Rows are read through a
+     * database cursor and written as they arrive, so the catalog is never held in memory.
+     */
+    public StreamingResponseBody exportAuthenticatedSellerProducts(Format format) {
+        User seller = getAuthenticatedSeller();
+        String sellerId = seller.getId();
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (format == Format.CSV) {
+                writer.write(CsvRecordReader.format(EXPORT_COLUMNS));
+                writer.write('\n');
+            }
+            // PostgreSQL only honours the fetch size inside a transaction; otherwise it reads the whole result.
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            try {
+                transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(EXPORT_SQL);
+                    ps.setFetchSize(EXPORT_FETCH_SIZE);
+                    ps.setString(1, sellerId);
+                    return ps;
+                }, (RowCallbackHandler) rs -> {
+                    List<Object> values = Arrays.asList(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                            rs.getFloat("price"), rs.getString("category"), rs.getInt("stock"),
+                            rs.getFloat("average_rating"), rs.getInt("num_of_reviews"), rs.getString("photo_url"));
+                    try {
+                        writer.write(format == Format.CSV ? CsvRecordReader.format(values) : toJsonLine(values));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+            log.info("Exported products of seller {} as {}.", seller.getEmail(), format);
+        };
+    }
+
+    private String toJsonLine(List<Object> values) throws JsonProcessingException {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i < EXPORT_COLUMNS.size(); i++) {
+            fields.put(EXPORT_COLUMNS.get(i), values.get(i));
+        }
+        return objectMapper.writeValueAsString(fields);
+    }
+}
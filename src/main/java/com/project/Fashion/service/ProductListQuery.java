@@ -0,0 +1,100 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.util.TextTokenizer;
+import org.springframework.util.StringUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cache key of one page of {@code GET /api/products}.
+ * <p>
+ * Besides identifying the page, the key knows the filters the page was computed with, so it can tell
+ * whether a changed product could enter, leave or move within the filtered result. The productsList
+ * cache uses that to evict only the pages a write can actually affect.
+ */
+public record ProductListQuery(int page, int size, String category, String searchTerm,
+                               Float minPrice, Float maxPrice, Float minRating, Boolean noReviews,
+                               String sortBy, String sortDir) {
+
+    /**
+     * @return The lower-cased category filter, or null if the page is not filtered by category.
+     */
+    public String categoryTag() {
+        return StringUtils.hasText(category) ? category.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * @return true if a change from {@code before} to {@code after} (either may be null) can change
+     * which products the filtered result contains, the order they appear in, or the facet counts.
+     */
+    public boolean isAffectedBy(ProductSnapshot before, ProductSnapshot after) {
+        boolean matchedBefore = matches(before);
+        boolean matchesAfter = matches(after);
+        if (matchedBefore != matchesAfter) {
+            return true;
+        }
+        return matchedBefore && (sortKeyChanged(before, after) || facetKeyChanged(before, after));
+    }
+
+    /**
+     * Evaluates the same filters as the listing query. The search term check is deliberately
+     * permissive: it accepts a product if either the LIKE fallback or the token index would.
+     */
+    public boolean matches(ProductSnapshot product) {
+        if (product == null) return false;
+        if (StringUtils.hasText(category) && !category.equalsIgnoreCase(product.category())) return false;
+        if (minPrice != null && product.price() < minPrice) return false;
+        if (maxPrice != null && product.price() > maxPrice) return false;
+        if (noReviews != null && noReviews) {
+            if (product.numOfReviews() != 0) return false;
+        } else if (minRating != null && minRating > 0 && product.averageRating() < minRating) {
+            return false;
+        }
+        return !StringUtils.hasText(searchTerm) || matchesSearchTerm(product);
+    }
+
+    private boolean sortKeyChanged(ProductSnapshot before, ProductSnapshot after) {
+        if ("relevance".equalsIgnoreCase(sortBy)) {
+            return !Objects.equals(before.name(), after.name())
+                    || !Objects.equals(before.category(), after.category())
+                    || !Objects.equals(before.description(), after.description());
+        }
+        return switch (ProductService.resolveSortProperty(sortBy)) {
+            case "price" -> Float.compare(before.price(), after.price()) != 0;
+            case "averageRating" -> Float.compare(before.averageRating(), after.averageRating()) != 0;
+            case "id" -> false;
+            default -> !Objects.equals(before.name(), after.name());
+        };
+    }
+
+    private static boolean facetKeyChanged(ProductSnapshot before, ProductSnapshot after) {
+        return Float.compare(before.price(), after.price()) != 0
+                || Float.compare(before.averageRating(), after.averageRating()) != 0
+                || before.numOfReviews() != after.numOfReviews()
+                || !Objects.equals(before.category(), after.category());
+    }
+
+    private boolean matchesSearchTerm(ProductSnapshot product) {
+        String term = searchTerm.toLowerCase();
+        if (containsIgnoreCase(product.name(), term) || containsIgnoreCase(product.description(), term)) {
+            return true;
+        }
+        List<String> queryTokens = TextTokenizer.tokenize(searchTerm);
+        if (queryTokens.isEmpty()) return false;
+        Set<String> productTokens = new HashSet<>(TextTokenizer.tokenize(product.name()));
+        productTokens.addAll(TextTokenizer.tokenize(product.category()));
+        productTokens.addAll(TextTokenizer.tokenize(product.description()));
+        return queryTokens.stream().allMatch(token -> productTokens.stream().anyMatch(candidate ->
+                candidate.equals(token)
+                        || (token.length() >= ProductSearchIndexService.MIN_PREFIX_LENGTH && candidate.startsWith(token))));
+    }
+
+    private static boolean containsIgnoreCase(String text, String lowerCaseTerm) {
+        return text != null && text.toLowerCase().contains(lowerCaseTerm);
+    }
+}
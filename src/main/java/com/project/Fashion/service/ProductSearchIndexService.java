@@ -0,0 +1,282 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.event.ProductsImportedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.repository.ProductRepository;
+import com.project.Fashion.util.TextTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process inverted index over product name, category and description.
+ * <p>
+ * Every field is tokenized with {@link TextTokenizer}; postings keep a field-weighted term frequency
+ * per product so a query can be ranked with BM25 without touching the database. A query matches a
+ * product only if every query token matches one of its terms, either exactly or (for tokens of at
+ * least {@value #MIN_PREFIX_LENGTH} characters) as a prefix, which keeps the filtering behaviour close
+ * to the old {@code LIKE '%term%'} search.
+ * <p>
+ * The index is built once the application is ready and then kept in sync from committed
+ * {@link ProductChangedEvent}s. A rebuild fills a new index off to the side; changes committed meanwhile
+ * are applied to the live index and replayed on the new one before it replaces the live one.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSearchIndexService {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double CATEGORY_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double PREFIX_MATCH_WEIGHT = 0.7;
+    static final int MIN_PREFIX_LENGTH = 3;
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Postings and document statistics. Guarded by the service's lock once published.
+     */
+    private static final class Index {
+        // term -> (productId -> weighted term frequency)
+        private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+        // productId -> (term -> weighted term frequency), needed to undo a document on update/delete
+        private final Map<Long, Map<String, Double>> documents = new HashMap<>();
+        private final Map<Long, Double> documentLengths = new HashMap<>();
+        private double totalLength;
+
+        private void addDocument(ProductSnapshot product) {
+            Map<String, Double> terms = new HashMap<>();
+            addField(terms, product.name(), NAME_WEIGHT);
+            addField(terms, product.category(), CATEGORY_WEIGHT);
+            addField(terms, product.description(), DESCRIPTION_WEIGHT);
+            double length = 0;
+            for (Map.Entry<String, Double> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(product.id(), term.getValue());
+                length += term.getValue();
+            }
+            documents.put(product.id(), terms);
+            documentLengths.put(product.id(), length);
+            totalLength += length;
+        }
+
+        private void removeDocument(Long productId) {
+            Map<String, Double> terms = documents.remove(productId);
+            if (terms == null) return;
+            for (String term : terms.keySet()) {
+                Map<Long, Double> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(productId);
+                    if (posting.isEmpty()) postings.remove(term);
+                }
+            }
+            Double length = documentLengths.remove(productId);
+            if (length != null) totalLength -= length;
+        }
+
+        private void replace(ProductSnapshot product) {
+            removeDocument(product.id());
+            addDocument(product);
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // While a rebuild runs (guarded by the write lock): changes to replay on the new index.
+    private List<Consumer<Index>> changesDuringRebuild;
+    private volatile boolean ready;
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadFromDatabase() {
+        long start = System.currentTimeMillis();
+        // Recording starts before the snapshot is read, so every change it might miss is replayed.
+        startRecordingChanges();
+        rebuild(productRepository.findAllSnapshots());
+        log.info("Product search index built with {} products and {} terms in {} ms.",
+                size(), termCount(), System.currentTimeMillis() - start);
+    }
+
+    private void startRecordingChanges() {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild == null) changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the index with one built from the products. Changes recorded since the products were read
+     * (see {@link #loadFromDatabase()}) are applied to the new index before it is published.
+     */
+    public void rebuild(Collection<ProductSnapshot> products) {
+        Index rebuilt = new Index();
+        for (ProductSnapshot product : products) {
+            rebuilt.addDocument(product);
+        }
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                changesDuringRebuild = null;
+            }
+            index = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            index(event.after());
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        event.products().forEach(this::index);
+    }
+
+    public void index(ProductSnapshot product) {
+        if (product == null || product.id() == null) return;
+        applyChange(target -> target.replace(product));
+        log.debug("Product {} (re)indexed for full-text search.", product.id());
+    }
+
+    public void remove(Long productId) {
+        if (productId == null) return;
+        applyChange(target -> target.removeDocument(productId));
+        log.debug("Product {} removed from full-text search index.", productId);
+    }
+
+    private void applyChange(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (changesDuringRebuild != null) changesDuringRebuild.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return true if the index is loaded and the term produces at least one searchable token.
+     * A term made only of stop words or punctuation cannot be answered by the index.
+     */
+    public boolean canSearch(String searchTerm) {
+        return ready && !TextTokenizer.tokenize(searchTerm).isEmpty();
+    }
+
+    /**
+     * Finds all products matching every token of the search term.
+     *
+     * @param searchTerm Free text as typed by the user.
+     * @return Product ids mapped to their BM25 score, ordered from most to least relevant.
+     */
+    public LinkedHashMap<Long, Double> search(String searchTerm) {
+        LinkedHashSet<String> queryTokens = new LinkedHashSet<>(TextTokenizer.tokenize(searchTerm));
+        LinkedHashMap<Long, Double> ranked = new LinkedHashMap<>();
+        if (queryTokens.isEmpty()) return ranked;
+
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            if (current.documents.isEmpty()) return ranked;
+            double avgLength = current.totalLength / current.documents.size();
+            Map<Long, Double> scores = null;
+            for (String token : queryTokens) {
+                Map<Long, Double> tokenScores = new HashMap<>();
+                accumulate(current, tokenScores, current.postings.get(token), 1.0, avgLength);
+                if (token.length() >= MIN_PREFIX_LENGTH) {
+                    for (Map.Entry<String, Map<Long, Double>> entry :
+                            current.postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                        accumulate(current, tokenScores, entry.getValue(), PREFIX_MATCH_WEIGHT, avgLength);
+                    }
+                }
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) break;
+            }
+            scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEachOrdered(e -> ranked.put(e.getKey(), e.getValue()));
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return index.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void accumulate(Index index, Map<Long, Double> target, Map<Long, Double> posting, double weight, double avgLength) {
+        if (posting == null || posting.isEmpty()) return;
+        int n = index.documents.size();
+        int df = posting.size();
+        double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        for (Map.Entry<Long, Double> entry : posting.entrySet()) {
+            double tf = entry.getValue();
+            double length = index.documentLengths.getOrDefault(entry.getKey(), avgLength);
+            double score = idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * length / avgLength));
+            target.merge(entry.getKey(), score * weight, Double::sum);
+        }
+    }
+
+    private static void addField(Map<String, Double> terms, String text, double weight) {
+        for (String token : TextTokenizer.tokenize(text)) {
+            terms.merge(token, weight, Double::sum);
+        }
+    }
+}
@@ -1,35 +1,52 @@
 package com.project.Fashion.service;
 
+import com.project.Fashion.dto.FacetedPage;
+import com.project.Fashion.dto.KeysetSliceDto;
 import com.project.Fashion.dto.ProductCreateDto;
+import com.project.Fashion.dto.ProductFacetsDto;
 import com.project.Fashion.dto.ProductResponseDto;
 import com.project.Fashion.dto.ProductUpdateDto;
 import com.project.Fashion.exception.exceptions.ImageStorageException;
+import com.project.Fashion.exception.exceptions.InvalidFieldException;
 import com.project.Fashion.exception.exceptions.UnsupportedImageFormatException;
 import java.util.Arrays;
 
 import com.project.Fashion.dto.ProductPriceRangeDto;
 import com.project.Fashion.config.mappers.ProductMapper;
+import com.project.Fashion.event.ProductChangedEvent;
 import com.project.Fashion.exception.exceptions.ProductNotFoundException;
 import com.project.Fashion.exception.exceptions.UserNotFoundException;
 import com.project.Fashion.model.Cart;
 import com.project.Fashion.model.Product;
+import com.project.Fashion.model.ProductDeletion;
+import com.project.Fashion.model.ProductSnapshot;
 import com.project.Fashion.model.User;
 import com.project.Fashion.repository.CartRepository;
+import com.project.Fashion.repository.ProductDeletionRepository;
 import com.project.Fashion.repository.ProductRepository;
 import com.project.Fashion.repository.UserRepository;
 import com.project.Fashion.config.RdfConfigProperties;
+import com.project.Fashion.util.KeysetCursor;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -39,21 +56,27 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
-
 @Service
 @Slf4j
 @Transactional(rollbackFor = Exception.class)
@@ -61,14 +84,24 @@ import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductDeletionRepository productDeletionRepository;
     private final UserRepository userRepository;
     private final CartRepository cartRepository;
     private final ProductMapper productMapper;
     private final SparqlQueryService sparqlQueryService;
     private final RdfConfigProperties rdfConfigProperties;
-    private final RdfConversionService rdfConversionService;
+    private final ProductSearchIndexService productSearchIndexService;
+    private final ProductCatalogEngine productCatalogEngine;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageStorageService imageStorageService;
+    private final PlatformTransactionManager transactionManager;
+
+    // Database queries filter full-text hits with an IN list of ids; above this many hits only the best-scoring ones are used.
+    private static final int MAX_INDEXED_SEARCH_HITS = 5000;
 
-    private static final String UPLOAD_DIR = "src/main/resources/static/uploads/products";
+    public static final int MAX_BATCH_SIZE = 100;
 
     private User getCurrentAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -100,32 +133,174 @@ public class ProductService {
         }
     }
 
-    @Cacheable(value = "productsList", key = "{#page, #size, #category, #searchTerm, #minPrice, #maxPrice, #minRating, #noReviews, #sortBy, #sortDir}")
+    @Cacheable(value = "productsList", key = "new com.project.Fashion.service.ProductListQuery(#page, #size, #category, #searchTerm, #minPrice, #maxPrice, #minRating, #noReviews, #sortBy, #sortDir)")
     @Transactional(readOnly = true)
     public Page<ProductResponseDto> getAllProducts(
             int page, int size, String category, String searchTerm,
             Float minPrice, Float maxPrice, Float minRating,
             Boolean noReviews,
             String sortBy, String sortDir) {
+        return loadProductsPage(new ProductListQuery(page, size, category, searchTerm, minPrice, maxPrice, minRating, noReviews, sortBy, sortDir));
+    }
+
+    /**
+     * Uncached body of {@link #getAllProducts}; also the loader of the productsList cache, which calls it
+     * with the cache key to load missing pages and refresh hot ones in the background.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductResponseDto> loadProductsPage(ProductListQuery query) {
+        int page = query.page();
+        int size = query.size();
+        String category = query.category();
+        String searchTerm = query.searchTerm();
+        Float minPrice = query.minPrice();
+        Float maxPrice = query.maxPrice();
+        Float minRating = query.minRating();
+        Boolean noReviews = query.noReviews();
+        String sortBy = query.sortBy();
+        String sortDir = query.sortDir();
         log.info("Fetching products from DB: page={}, size={}, category={}, searchTerm={}, minPrice={}, maxPrice={}, minRating={}, sortBy={}, sortDir={}, noReviews={}",
                 page, size, category, searchTerm, minPrice, maxPrice, minRating, sortBy, sortDir, noReviews);
-        Sort.Direction direction = Sort.Direction.ASC;
-        if (sortDir != null && sortDir.equalsIgnoreCase("DESC")) {
-            direction = Sort.Direction.DESC;
+        Sort.Direction direction = resolveSortDirection(sortDir);
+        boolean sortByRelevance = "relevance".equalsIgnoreCase(sortBy);
+        String sortProperty = resolveSortProperty(sortBy);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortProperty));
+
+        Map<Long, Double> indexedHits = resolveSearchHits(searchTerm);
+        if (indexedHits != null && indexedHits.isEmpty()) {
+            return new FacetedPage<>(List.of(), pageable, 0, new ProductFacetCounter().toDto());
+        }
+
+        // The in-memory catalog answers everything except a LIKE search, with every hit; it then only loads the page rows.
+        if (productCatalogEngine.isReady() && (indexedHits != null || !StringUtils.hasText(searchTerm))) {
+            ProductCatalogEngine.CatalogQuery catalogQuery = new ProductCatalogEngine.CatalogQuery(
+                    category, minPrice, maxPrice, minRating, noReviews, indexedHits != null ? indexedHits.keySet() : null);
+            ProductFacetsDto facets = productCatalogEngine.computeFacets(catalogQuery);
+            if (sortByRelevance && indexedHits != null) {
+                return getProductsPageByRelevance(productCatalogEngine.findIds(catalogQuery), indexedHits, page, size, facets);
+            }
+            ProductCatalogEngine.CatalogPage catalogPage = productCatalogEngine.findPage(catalogQuery, sortProperty, direction, (int) pageable.getOffset(), size);
+            return new FacetedPage<>(loadProductsInOrder(catalogPage.ids()), pageable, catalogPage.totalElements(), facets);
         }
-        String sortProperty = StringUtils.hasText(sortBy) ? sortBy : "name";
+
+        indexedHits = bestSearchHits(indexedHits);
+        Specification<Product> spec = buildProductSpecification(category, searchTerm, indexedHits, minPrice, maxPrice, minRating, noReviews);
+        ProductFacetsDto facets = computeFacets(spec);
+        if (sortByRelevance && indexedHits != null) {
+            List<Long> matchingIds = productRepository.findAll(spec).stream().map(Product::getId).collect(Collectors.toList());
+            return getProductsPageByRelevance(matchingIds, indexedHits, page, size, facets);
+        }
+        Page<Product> productPage = productRepository.findAll(spec, pageable);
+        return new FacetedPage<>(productPage.map(productMapper::toProductResponseDto).getContent(), pageable, productPage.getTotalElements(), facets);
+    }
+
+    /**
+     * Facets for the JPA path: one query that selects only the facet columns of the rows matching
+     * {@code spec}, counted in a single pass.
+     */
+    private ProductFacetsDto computeFacets(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        query.multiselect(root.get("category"), root.get("price"), root.get("averageRating"), root.get("numOfReviews"));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+
+        ProductFacetCounter counter = new ProductFacetCounter();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counter.add(row.get(0, String.class), row.get(1, Float.class), row.get(2, Float.class), row.get(3, Integer.class));
+        }
+        return counter.toDto();
+    }
+
+    /**
+     * Loads the given products with one query and maps them in the order of {@code ids}.
+     */
+    private List<ProductResponseDto> loadProductsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toProductResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Keyset ("seek") variant of {@link #getAllProducts}. Instead of skipping {@code page * size} rows the
+     * query continues after the sort key and id encoded in the {@code after} cursor, so every slice costs the same.
+     * Relevance sorting is not available in this mode and falls back to name.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSliceDto<ProductResponseDto> scrollProducts(
+            int size, String category, String searchTerm,
+            Float minPrice, Float maxPrice, Float minRating,
+            Boolean noReviews,
+            String sortBy, String sortDir, String after) {
+        Sort.Direction direction = resolveSortDirection(sortDir);
+        String sortProperty = resolveSortProperty(sortBy);
+        KeysetScrollPosition position = KeysetCursor.positionAfter(after, sortProperty, direction);
+
+        Map<Long, Double> indexedHits = resolveSearchHits(searchTerm);
+        if (indexedHits != null && indexedHits.isEmpty()) {
+            return new KeysetSliceDto<>(List.of(), 0, false, null);
+        }
+        Specification<Product> spec = buildProductSpecification(category, searchTerm, bestSearchHits(indexedHits), minPrice, maxPrice, minRating, noReviews);
+        Window<Product> window = productRepository.findBy(spec, q -> q
+                .sortBy(KeysetCursor.sort(sortProperty, direction))
+                .limit(KeysetCursor.clampSize(size))
+                .scroll(position));
+        return KeysetCursor.toSlice(window, productMapper::toProductResponseDto, sortProperty, direction);
+    }
+
+    private static Sort.Direction resolveSortDirection(String sortDir) {
+        return sortDir != null && sortDir.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    static String resolveSortProperty(String sortBy) {
         List<String> validSortProperties = List.of("name", "price", "averageRating", "id");
-        if (!validSortProperties.contains(sortProperty)) {
-            sortProperty = "name";
+        return StringUtils.hasText(sortBy) && validSortProperties.contains(sortBy) ? sortBy : "name";
+    }
+
+    /**
+     * Resolves the search term against the in-memory index so the database only has to filter by id.
+     *
+     * @return The hits ranked best first (empty if nothing matches), or null if the index cannot answer the
+     * term (not loaded yet, or only stop words) and it must be filtered with LIKE instead.
+     */
+    private Map<Long, Double> resolveSearchHits(String searchTerm) {
+        if (!StringUtils.hasText(searchTerm) || !productSearchIndexService.canSearch(searchTerm)) {
+            return null;
         }
+        return productSearchIndexService.search(searchTerm);
+    }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortProperty));
-        Specification<Product> spec = (root, query, cb) -> {
+    /**
+     * Keeps the {@value #MAX_INDEXED_SEARCH_HITS} best-scoring hits, so a broad term still fits an IN list.
+     * The matching rule stays the index's; only the least relevant matches are left out.
+     */
+    private Map<Long, Double> bestSearchHits(Map<Long, Double> rankedHits) {
+        if (rankedHits == null || rankedHits.size() <= MAX_INDEXED_SEARCH_HITS) return rankedHits;
+        log.debug("Search matched {} products; the database query uses the best {}.", rankedHits.size(), MAX_INDEXED_SEARCH_HITS);
+        Map<Long, Double> best = new LinkedHashMap<>();
+        for (Map.Entry<Long, Double> hit : rankedHits.entrySet()) {
+            if (best.size() == MAX_INDEXED_SEARCH_HITS) break;
+            best.put(hit.getKey(), hit.getValue());
+        }
+        return best;
+    }
+
+    private Specification<Product> buildProductSpecification(String category, String searchTerm, Map<Long, Double> indexedHits,
+                                                             Float minPrice, Float maxPrice, Float minRating, Boolean noReviews) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (StringUtils.hasText(category)) predicates.add(cb.equal(cb.lower(root.get("category")), category.toLowerCase()));
 
-            if (StringUtils.hasText(searchTerm)) {
+            if (indexedHits != null) {
+                predicates.add(root.get("id").in(indexedHits.keySet()));
+            } else if (StringUtils.hasText(searchTerm)) {
                 predicates.add(cb.or(
                         cb.like(cb.lower(root.get("name")), "%" + searchTerm.toLowerCase() + "%"),
                         cb.like(cb.lower(root.get("description")), "%" + searchTerm.toLowerCase() + "%")
@@ -144,31 +319,79 @@ public class ProductService {
             }
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-        Page<Product> productPage = productRepository.findAll(spec, pageable);
-        return productPage.map(productMapper::toProductResponseDto);
+    }
+
+    /**
+     * Orders the filtered search hits by their BM25 score (best first) and loads only the requested page.
+     * The candidates are ids only, so sorting them in memory is cheap.
+     */
+    private Page<ProductResponseDto> getProductsPageByRelevance(List<Long> matchingIds, Map<Long, Double> scores, int page, int size, ProductFacetsDto facets) {
+        List<Long> ranked = new ArrayList<>(matchingIds);
+        ranked.sort(Comparator.comparingDouble((Long id) -> scores.getOrDefault(id, 0.0)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        Pageable pageable = PageRequest.of(page, size);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        return new FacetedPage<>(loadProductsInOrder(ranked.subList(from, to)), pageable, ranked.size(), facets);
     }
 
     @Cacheable(value = "products", key = "#id")
     @Transactional(readOnly = true)
     public ProductResponseDto getProductById(Long id) {
+        return loadProductById(id);
+    }
+
+    /**
+     * Uncached body of {@link #getProductById}; also the loader of the products cache.
+     */
+    @Transactional(readOnly = true)
+    public ProductResponseDto loadProductById(Long id) {
         log.info("Fetching product from DB with id: {}", id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
         return productMapper.toProductResponseDto(product);
     }
 
-    private Product getFullyLoadedProduct(Long productId) {
-        return productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + productId + " for RDF update."));
+    /**
+     * Multi-get counterpart of {@link #getProductById}: one bulk lookup in the products cache, one
+     * {@code findAllById} for the misses and one bulk put of the loaded entries.
+     *
+     * @param ids Product IDs; duplicates are ignored.
+     * @return The products that exist, in the order they were requested.
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<ProductResponseDto> getProductsByIds(List<Long> ids) {
+        Set<Long> requested = ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (requested.isEmpty()) return List.of();
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new InvalidFieldException("At most " + MAX_BATCH_SIZE + " product IDs can be requested at once.");
+        }
+
+        Cache cache = cacheManager.getCache("products");
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                        ? (com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine : null;
+
+        Map<Long, ProductResponseDto> found = new HashMap<>();
+        if (nativeCache != null) {
+            nativeCache.getAllPresent(requested).forEach((id, dto) -> found.put((Long) id, (ProductResponseDto) dto));
+        }
+        List<Long> misses = requested.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+        if (!misses.isEmpty()) {
+            log.info("Fetching {} of {} batch-requested products from DB.", misses.size(), requested.size());
+            Map<Long, ProductResponseDto> loaded = productRepository.findAllById(misses).stream()
+                    .collect(Collectors.toMap(Product::getId, productMapper::toProductResponseDto));
+            found.putAll(loaded);
+            if (nativeCache != null) {
+                nativeCache.putAll(loaded);
+            } else if (cache != null) {
+                loaded.forEach(cache::put);
+            }
+        }
+        return requested.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "productsList", allEntries = true),
-            @CacheEvict(value = "productCategories", allEntries = true),
-            @CacheEvict(value = "productPriceRange", allEntries = true),
-            @CacheEvict(value = "sellerProducts", allEntries = true),
-            @CacheEvict(value = "products", allEntries = true)
-    })
     public ProductResponseDto createProduct(ProductCreateDto productCreateDto) {
         User authenticatedSeller = getCurrentAuthenticatedUser();
         if (!"SELLER".equalsIgnoreCase(authenticatedSeller.getRole())) {
@@ -180,26 +403,19 @@ public class ProductService {
         product.setAverageRating(0.0f);
         product.setNumOfReviews(0);
         Product savedProduct = productRepository.save(product);
-        log.info("Product {} created by seller {}. Evicting relevant caches.", savedProduct.getId(), authenticatedSeller.getEmail());
+        log.info("Product {} created by seller {}.", savedProduct.getId(), authenticatedSeller.getEmail());
 
-        Product fullyLoadedProduct = getFullyLoadedProduct(savedProduct.getId());
-        rdfConversionService.addOrUpdateProductInRdfStore(fullyLoadedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(ProductSnapshot.of(savedProduct)));
 
         return productMapper.toProductResponseDto(savedProduct);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#id"),
-            @CacheEvict(value = "productsList", allEntries = true),
-            @CacheEvict(value = "productCategories", allEntries = true),
-            @CacheEvict(value = "productPriceRange", allEntries = true),
-            @CacheEvict(value = "sellerProducts", allEntries = true)
-    })
     public ProductResponseDto updateProduct(Long id, ProductUpdateDto productUpdateDto) {
         User authenticatedUser = getCurrentAuthenticatedUser();
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
         checkProductOwnership(existingProduct, authenticatedUser);
+        ProductSnapshot before = ProductSnapshot.of(existingProduct);
 
         productMapper.updateProductFromDto(productUpdateDto, existingProduct);
 
@@ -213,27 +429,18 @@ public class ProductService {
         }
 
         Product updatedProduct = productRepository.save(existingProduct);
-        log.info("Product {} updated by owner {}. Evicting relevant caches.", updatedProduct.getId(), authenticatedUser.getEmail());
+        log.info("Product {} updated by owner {}.", updatedProduct.getId(), authenticatedUser.getEmail());
 
-        Product fullyLoadedProduct = getFullyLoadedProduct(updatedProduct.getId());
-        rdfConversionService.addOrUpdateProductInRdfStore(fullyLoadedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, ProductSnapshot.of(updatedProduct)));
 
         return productMapper.toProductResponseDto(updatedProduct);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#id"),
-            @CacheEvict(value = "productsList", allEntries = true),
-            @CacheEvict(value = "productCategories", allEntries = true),
-            @CacheEvict(value = "productPriceRange", allEntries = true),
-            @CacheEvict(value = "sellerProducts", allEntries = true)
-    })
     public void deleteProduct(Long id) {
         User authUser = getCurrentAuthenticatedUser();
         if (!productRepository.existsById(id)) {
             throw new ProductNotFoundException("Product not found with id: " + id + " for deletion.");
         }
-        rdfConversionService.removeProductFromRdfStore(id);
         Product product = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException("P_NF:" + id));
         if (authUser.getRole().equalsIgnoreCase("ADMIN")) log.info("Admin {} deleting product {}", authUser.getEmail(), id);
         else if ("SELLER".equalsIgnoreCase(authUser.getRole())) {
@@ -248,18 +455,23 @@ public class ProductService {
             log.info("Deleting product {}. Removed it from {} user carts first.", id, cartsWithProduct.size());
         }
 
+        ProductSnapshot before = ProductSnapshot.of(product);
         productRepository.deleteById(id);
-        log.info("Evicting caches for deleted product {}", id);
+        productDeletionRepository.save(new ProductDeletion(id));
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(before));
     }
 
     private static final long MAX_FILE_SIZE_BYTES = 5 * 1024 * 1024; // 5 MB
     private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList("image/jpeg", "image/png");
 
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productsList", allEntries = true),
-            @CacheEvict(value = "sellerProducts", allEntries = true)
-    })
+    /**
+     * Stores the image and points the product at it. The caller's ownership of the product is checked in a
+     * short read-only transaction first, so nothing is written for a product the caller may not change. The
+     * upload is then hashed and written to the image store outside any transaction, so a slow upload does
+     * not hold a connection, and the update re-checks ownership; if it fails, the stored file is left for
+     * ImageStorageService's garbage collection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductResponseDto addImageToProduct(Long productId, MultipartFile file) {
         if (file.isEmpty()) {
             throw new ImageStorageException("Failed to store empty file.");
@@ -271,30 +483,41 @@ public class ProductService {
         if (contentType == null || !ALLOWED_IMAGE_TYPES.contains(contentType)) {
             throw new UnsupportedImageFormatException("Unsupported image format. Please upload a JPEG or PNG image.");
         }
-        User authSeller = getCurrentAuthenticatedUser();
-        Product product = productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException("P_NF:" + productId));
-        checkProductOwnership(product, authSeller);
-        try {
-            Path uploadPath = Paths.get(UPLOAD_DIR).toAbsolutePath().normalize();
-            Files.createDirectories(uploadPath);
-            String originalFilename = file.getOriginalFilename();
-            String filename = "product_" + productId + "_" + System.currentTimeMillis() + "_" +
-                    (StringUtils.hasText(originalFilename) ? StringUtils.cleanPath(originalFilename).replaceAll("\\s+", "_") : "image.png");
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, REPLACE_EXISTING);
-            String fileUrl = "/api/products/image/" + filename;
-            product.setPhotoUrl(fileUrl);
-            Product savedProduct = productRepository.save(product);
-            log.info("Image for product {} added by {}. Caches evicted.", savedProduct.getId(), authSeller.getEmail());
-
-            Product fullyLoadedProduct = getFullyLoadedProduct(savedProduct.getId());
-            rdfConversionService.addOrUpdateProductInRdfStore(fullyLoadedProduct);
-
-            return productMapper.toProductResponseDto(savedProduct);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> findOwnedProduct(productId));
+
+        String filename;
+        try (InputStream content = file.getInputStream()) {
+            filename = imageStorageService.store(content, "image/png".equals(contentType) ? "png" : "jpg");
         } catch (IOException e) {
             log.error("File storage failed for product {}: {}", productId, e.getMessage(), e);
             throw new ImageStorageException("File storage failed: " + e.getMessage());
         }
+        return new TransactionTemplate(transactionManager).execute(status -> setProductImage(productId, filename));
+    }
+
+    private ProductResponseDto setProductImage(Long productId, String filename) {
+        Product product = findOwnedProduct(productId);
+        User authSeller = product.getSeller();
+        ProductSnapshot before = ProductSnapshot.of(product);
+        product.setPhotoUrl(ImageVariant.IMAGE_URL_PREFIX + filename);
+        Product savedProduct = productRepository.save(product);
+        log.info("Image for product {} added by {}.", savedProduct.getId(), authSeller.getEmail());
+
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, ProductSnapshot.of(savedProduct)));
+
+        return productMapper.toProductResponseDto(savedProduct);
+    }
+
+    /**
+     * @return The product, if the authenticated user is the seller who owns it.
+     */
+    private Product findOwnedProduct(Long productId) {
+        User authSeller = getCurrentAuthenticatedUser();
+        Product product = productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException("P_NF:" + productId));
+        checkProductOwnership(product, authSeller);
+        return product;
     }
 
     @Transactional(readOnly = true)
@@ -326,18 +549,38 @@ public class ProductService {
         return productsPage.map(productMapper::toProductResponseDto);
     }
 
+    @Transactional(readOnly = true)
+    public KeysetSliceDto<ProductResponseDto> scrollProductsByAuthenticatedSeller(int size, String sortBy, String sortDir, String after) {
+        User authSeller = getCurrentAuthenticatedUser();
+        if (!"SELLER".equalsIgnoreCase(authSeller.getRole())) {
+            log.warn("User {} (role {}) attempted to access seller products.", authSeller.getEmail(), authSeller.getRole());
+            throw new AccessDeniedException("Only SELLERs can access this resource.");
+        }
+        Sort.Direction direction = resolveSortDirection(sortDir);
+        String sortProperty = resolveSortProperty(sortBy);
+        KeysetScrollPosition position = KeysetCursor.positionAfter(after, sortProperty, direction);
+        String sellerId = authSeller.getId();
+        Specification<Product> spec = (root, query, cb) -> cb.equal(root.get("seller").get("id"), sellerId);
+        Window<Product> window = productRepository.findBy(spec, q -> q
+                .sortBy(KeysetCursor.sort(sortProperty, direction))
+                .limit(KeysetCursor.clampSize(size))
+                .scroll(position));
+        return KeysetCursor.toSlice(window, productMapper::toProductResponseDto, sortProperty, direction);
+    }
+
     @Transactional(readOnly = true)
     public Page<ProductResponseDto> findProductsBySemanticSearch(String categoryName, String descriptionKeyword, Pageable pageable) {
         log.info("Performing optimized semantic product search with category: '{}', keyword: '{}', pageable: {}",
                 categoryName, descriptionKeyword, pageable);
 
-        long totalElements = sparqlQueryService.countTotalSemanticSearchResults(categoryName, descriptionKeyword);
+        SparqlQueryService.SemanticSearchResult semanticResult = sparqlQueryService.searchProductsSemantic(categoryName, descriptionKeyword, pageable);
+        long totalElements = semanticResult.total();
         if (totalElements == 0) {
             log.info("No products found from semantic search criteria (count is 0).");
             return Page.empty(pageable);
         }
 
-        List<Map<String, String>> sparqlResultsForPage = sparqlQueryService.searchProductsSemantic(categoryName, descriptionKeyword, pageable);
+        List<Map<String, String>> sparqlResultsForPage = semanticResult.rows();
         if (sparqlResultsForPage.isEmpty() && totalElements > 0) {
             log.info("No products found from paginated semantic search for the current page (page number might be too high).");
             return new PageImpl<>(Collections.emptyList(), pageable, totalElements);
@@ -0,0 +1,327 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.dto.ProductSuggestionDto;
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.event.ProductsImportedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.repository.ProductRepository;
+import com.project.Fashion.util.TextTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Typeahead suggestions over product names and categories.
+ * <p>
+ * Name and category tokens are kept in a sorted map, which serves as the prefix structure: all terms
+ * starting with a prefix form one contiguous sub-map. Misspellings are handled with a trigram index
+ * over the same terms; candidates sharing trigrams with a query token are verified with a bounded
+ * edit distance. Matching products are ranked by match quality times a popularity weight derived from
+ * averageRating and numOfReviews, keeping only the top k in a small heap.
+ * <p>
+ * Loaded once the application is ready and kept in sync from committed {@link ProductChangedEvent}s.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSuggestService {
+
+    public static final int DEFAULT_LIMIT = 8;
+    public static final int MAX_LIMIT = 20;
+
+    private static final double PREFIX_MATCH = 1.0;
+    private static final double FUZZY_MATCH = 0.5;
+    private static final double FULL_NAME_PREFIX_BONUS = 0.5;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MAX_PREFIX_EXPANSION = 200;
+
+    private final ProductRepository productRepository;
+
+    private static final class Index {
+        private final Map<Long, ProductSnapshot> products = new HashMap<>();
+        private final Map<Long, String> normalizedNames = new HashMap<>();
+        // name token -> product ids
+        private final NavigableMap<String, Set<Long>> nameTerms = new TreeMap<>();
+        // trigram -> name tokens containing it, for fuzzy lookup
+        private final Map<String, Set<String>> trigrams = new HashMap<>();
+        // normalized category -> (display name, product count)
+        private final NavigableMap<String, Map.Entry<String, Integer>> categories = new TreeMap<>();
+
+        private void add(ProductSnapshot product) {
+            if (product == null || product.id() == null) return;
+            products.put(product.id(), product);
+            normalizedNames.put(product.id(), TextTokenizer.normalize(product.name()));
+            for (String token : new HashSet<>(TextTokenizer.tokenize(product.name()))) {
+                nameTerms.computeIfAbsent(token, t -> {
+                    trigramsOf(t).forEach(gram -> trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(t));
+                    return new HashSet<>();
+                }).add(product.id());
+            }
+            if (product.category() != null) {
+                categories.merge(TextTokenizer.normalize(product.category()), Map.entry(product.category(), 1),
+                        (existing, added) -> Map.entry(existing.getKey(), existing.getValue() + 1));
+            }
+        }
+
+        private void remove(Long productId) {
+            ProductSnapshot product = products.remove(productId);
+            if (product == null) return;
+            normalizedNames.remove(productId);
+            for (String token : new HashSet<>(TextTokenizer.tokenize(product.name()))) {
+                Set<Long> ids = nameTerms.get(token);
+                if (ids == null) continue;
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    nameTerms.remove(token);
+                    for (String gram : trigramsOf(token)) {
+                        Set<String> terms = trigrams.get(gram);
+                        if (terms != null && terms.remove(token) && terms.isEmpty()) trigrams.remove(gram);
+                    }
+                }
+            }
+            if (product.category() != null) {
+                categories.computeIfPresent(TextTokenizer.normalize(product.category()),
+                        (key, existing) -> existing.getValue() <= 1 ? null : Map.entry(existing.getKey(), existing.getValue() - 1));
+            }
+        }
+
+        private void replace(ProductSnapshot product) {
+            remove(product.id());
+            add(product);
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // While a rebuild runs (guarded by the write lock): changes to replay on the new index.
+    private List<Consumer<Index>> changesDuringRebuild;
+
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadFromDatabase() {
+        long start = System.currentTimeMillis();
+        // Recording starts before the snapshot is read, so every change it might miss is replayed.
+        startRecordingChanges();
+        rebuild(productRepository.findAllSnapshots());
+        lock.readLock().lock();
+        try {
+            log.info("Product suggestion index built with {} products and {} name terms in {} ms.",
+                    index.products.size(), index.nameTerms.size(), System.currentTimeMillis() - start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void startRecordingChanges() {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild == null) changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the suggestions with ones built from the products. Changes recorded since the products were
+     * read (see {@link #loadFromDatabase()}) are applied before the new index is published.
+     */
+    public void rebuild(Collection<ProductSnapshot> snapshots) {
+        Index rebuilt = new Index();
+        snapshots.forEach(rebuilt::add);
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                changesDuringRebuild = null;
+            }
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            applyChange(target -> target.remove(event.productId()));
+        } else {
+            ProductSnapshot product = event.after();
+            applyChange(target -> target.replace(product));
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        List<ProductSnapshot> products = List.copyOf(event.products());
+        applyChange(target -> products.forEach(target::replace));
+    }
+
+    private void applyChange(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (changesDuringRebuild != null) changesDuringRebuild.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param query What the user has typed so far. Every word is matched as a prefix of a name word.
+     * @param limit Maximum number of suggestions.
+     * @return Matching categories first, then products, best match first.
+     */
+    public List<ProductSuggestionDto> suggest(String query, int limit) {
+        List<String> tokens = TextTokenizer.tokenize(query);
+        List<ProductSuggestionDto> suggestions = new ArrayList<>();
+        if (tokens.isEmpty()) return suggestions;
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String normalizedQuery = TextTokenizer.normalize(query).trim();
+
+        lock.readLock().lock();
+        try {
+            if (tokens.size() == 1) {
+                for (Map.Entry<String, Map.Entry<String, Integer>> category : prefixRange(index.categories, tokens.get(0)).entrySet()) {
+                    if (suggestions.size() >= Math.min(2, k)) break;
+                    suggestions.add(new ProductSuggestionDto("CATEGORY", null, category.getValue().getKey(),
+                            category.getValue().getKey(), 0f, category.getValue().getValue()));
+                }
+            }
+
+            // Every query token must match some name token; scores of the tokens add up.
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = matchToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) break;
+            }
+
+            Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.comparingByValue();
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(byScore);
+            int productSlots = k - suggestions.size();
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                ProductSnapshot product = index.products.get(entry.getKey());
+                double score = entry.getValue() * popularity(product);
+                if (index.normalizedNames.get(product.id()).startsWith(normalizedQuery)) {
+                    score += FULL_NAME_PREFIX_BONUS * popularity(product);
+                }
+                top.offer(Map.entry(entry.getKey(), score));
+                if (top.size() > productSlots) top.poll();
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(top);
+            ranked.sort(byScore.reversed().thenComparing(Map.Entry.comparingByKey()));
+            for (Map.Entry<Long, Double> entry : ranked) {
+                ProductSnapshot product = index.products.get(entry.getKey());
+                suggestions.add(new ProductSuggestionDto("PRODUCT", product.id(), product.name(), product.category(),
+                        product.averageRating(), product.numOfReviews()));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers must hold the read lock.
+    private Map<Long, Double> matchToken(String token) {
+        Map<Long, Double> scores = new HashMap<>();
+        int expanded = 0;
+        for (Set<Long> ids : prefixRange(index.nameTerms, token).values()) {
+            if (expanded++ >= MAX_PREFIX_EXPANSION) break;
+            ids.forEach(id -> scores.putIfAbsent(id, PREFIX_MATCH));
+        }
+        if (scores.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxDistance = token.length() <= 5 ? 1 : 2;
+            for (String candidate : fuzzyCandidates(token)) {
+                // Compare against the candidate's prefix of the same length as well, since the word may be unfinished.
+                boolean close = editDistance(token, candidate, maxDistance) <= maxDistance
+                        || (candidate.length() > token.length()
+                        && editDistance(token, candidate.substring(0, token.length()), maxDistance) <= maxDistance);
+                if (close) index.nameTerms.get(candidate).forEach(id -> scores.putIfAbsent(id, FUZZY_MATCH));
+            }
+        }
+        return scores;
+    }
+
+    // Callers must hold the read lock.
+    private Set<String> fuzzyCandidates(String token) {
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : trigramsOf(token)) {
+            Set<String> terms = index.trigrams.get(gram);
+            if (terms != null) terms.forEach(term -> shared.merge(term, 1, Integer::sum));
+        }
+        Set<String> candidates = new LinkedHashSet<>();
+        shared.forEach((term, count) -> {
+            if (count >= 2 || token.length() <= 4) candidates.add(term);
+        });
+        return candidates;
+    }
+
+    private static double popularity(ProductSnapshot product) {
+        return (1.0 + product.averageRating()) * Math.log(2.0 + product.numOfReviews());
+    }
+
+    private static <V> NavigableMap<String, V> prefixRange(NavigableMap<String, V> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static List<String> trigramsOf(String term) {
+        String padded = "^" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Levenshtein distance with an early exit once every cell of a row exceeds {@code max}.
+     */
+    private static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -2,11 +2,20 @@ package com.project.Fashion.service;
 
 import com.project.Fashion.config.RdfConfigProperties;
 import com.project.Fashion.model.Product;
+import com.project.Fashion.model.ProductDeletion;
 import com.project.Fashion.model.Review;
 import com.project.Fashion.model.User;
+import com.project.Fashion.repository.ProductDeletionRepository;
 import com.project.Fashion.repository.ProductRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.rdf.model.*;
+import org.apache.jena.sparql.pfunction.PropertyFunctionRegistry;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.TDB2Factory;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
@@ -14,18 +23,54 @@ import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.util.StringUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
 import java.io.InputStream;
+import java.time.Instant;
 import java.util.ArrayList; // For creating lists of statements to remove
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
+/**
+ * Converts products to RDF and maintains the application's product graph.
+ * <p>
+ * The graph is the default graph of a Jena {@link Dataset}: a transactional in-memory dataset
+ * ({@code fashion.rdf.store.mode=memory}) or a TDB2 dataset on disk ({@code tdb2}). Both are MVCC: a read
+ * transaction sees the snapshot committed when it began, any number of readers run in parallel, and a
+ * writer never waits for readers or makes them wait. All access goes through dataset transactions; use
+ * {@link #readStore(Function)} to query it. Besides live updates from {@link RdfSyncService},
+ * {@link #synchronizeWithDatabase()} applies the products changed since a watermark kept in the dataset
+ * itself and committed with the data, and removes the products deleted since then. With TDB2 a restart
+ * therefore only handles what changed while the application was down, instead of the whole catalog; with
+ * the in-memory store the watermark starts empty and the first sync loads everything.
+ * <p>
+ * Bulk loads read products a page at a time with their seller and reviews fetched in the same query, and
+ * convert each page on a fork-join pool while the next page is read. A page is split into partitions that
+ * are converted into graphs of their own and added to the store together, in one write.
+ * <p>
+ * Product names and descriptions are also kept in a {@link KeywordIndex}, updated after each write commits
+ * and rebuilt with the store on refresh. A store that already holds products at startup is indexed on a
+ * background thread. Queries use it through the {@code fash:keywordMatch} property
+ * function ({@link KeywordMatchPropertyFunction}).
+ */
 @Service
 public class RdfConversionService {
 
@@ -47,8 +92,19 @@ public class RdfConversionService {
     public static final Property SCHEMA_datePublished = ModelFactory.createDefaultModel().createProperty(SCHEMA_NS + "datePublished");
     public static final Property SCHEMA_email = ModelFactory.createDefaultModel().createProperty(SCHEMA_NS + "email");
 
+    // Named graph with the store's own bookkeeping, kept out of the default graph that queries see.
+    private static final String STORE_STATE_GRAPH = "urn:fashion:rdf-store";
+    private static final Resource SYNC_STATE = ResourceFactory.createResource(STORE_STATE_GRAPH + "#sync");
+    private static final Property SYNC_WATERMARK = ResourceFactory.createProperty(STORE_STATE_GRAPH + "#watermark");
+    private static final int SYNC_BATCH_SIZE = 500;
+    private static final int CONVERSION_PARTITION_SIZE = 64;
+
     private final RdfConfigProperties rdfConfigProperties;
     private final ProductRepository productRepository;
+    private final ProductDeletionRepository productDeletionRepository;
+    private final EntityManager entityManager;
+    private final ForkJoinPool conversionPool;
+    private final Timer rebuildTimer;
     private Model ontologyModel;
 
     private Resource fashionProductClass;
@@ -67,17 +123,52 @@ public class RdfConversionService {
     private Property ratingValueProp;
     private Property commentTextProp;
 
-    private Model applicationRdfStore;
+    // Replaced as a whole when an in-memory refresh is published; read it once per transaction.
+    private volatile Dataset dataset;
+    // Moved on after every committed write; see storeGeneration().
+    private final AtomicLong generation = new AtomicLong();
+    // Replaced together with the dataset on refresh, and once built when the store was not empty at startup.
+    private volatile KeywordIndex keywordIndex = new KeywordIndex();
 
     @Autowired
-    public RdfConversionService(RdfConfigProperties rdfConfigProperties, ProductRepository productRepository) {
+    public RdfConversionService(RdfConfigProperties rdfConfigProperties, ProductRepository productRepository,
+                                ProductDeletionRepository productDeletionRepository, EntityManager entityManager,
+                                MeterRegistry meterRegistry) {
         this.rdfConfigProperties = rdfConfigProperties;
         this.productRepository = productRepository;
-        this.applicationRdfStore = ModelFactory.createDefaultModel();
-        this.applicationRdfStore.setNsPrefix("fash", rdfConfigProperties.getOntologyBaseUri());
-        this.applicationRdfStore.setNsPrefix("schema", SCHEMA_NS);
-        this.applicationRdfStore.setNsPrefix("xsd", XSDDatatype.XSD + "#");
-        this.applicationRdfStore.setNsPrefix("data", rdfConfigProperties.getDataBaseUri());
+        this.productDeletionRepository = productDeletionRepository;
+        this.entityManager = entityManager;
+        this.conversionPool = new ForkJoinPool(rdfConfigProperties.getConversionThreads());
+        this.rebuildTimer = Timer.builder("rdf.store.rebuild")
+                .description("Time to load every product from the database into the RDF store")
+                .register(meterRegistry);
+        if (rdfConfigProperties.isPersistentStore()) {
+            this.dataset = withPrefixes(TDB2Factory.connectDataset(rdfConfigProperties.getStoreLocation()));
+            logger.info("Using TDB2 RDF store at {}", rdfConfigProperties.getStoreLocation());
+        } else {
+            this.dataset = createInMemoryDataset();
+        }
+    }
+
+    private Dataset createInMemoryDataset() {
+        return withPrefixes(DatasetFactory.createTxnMem());
+    }
+
+    private Dataset withPrefixes(Dataset store) {
+        Txn.executeWrite(store, () -> {
+            Model graph = store.getDefaultModel();
+            graph.setNsPrefix("fash", rdfConfigProperties.getOntologyBaseUri());
+            graph.setNsPrefix("schema", SCHEMA_NS);
+            graph.setNsPrefix("xsd", XSDDatatype.XSD + "#");
+            graph.setNsPrefix("data", rdfConfigProperties.getDataBaseUri());
+        });
+        return store;
+    }
+
+    @PreDestroy
+    public void close() {
+        conversionPool.shutdownNow();
+        dataset.close();
     }
 
     @PostConstruct
@@ -114,21 +205,227 @@ public class RdfConversionService {
         } catch (Exception e) {
             logger.error("Failed to load fashion ontology: {}", e.getMessage(), e);
         }
+
+        PropertyFunctionRegistry.get().put(rdfConfigProperties.getOntologyBaseUri() + KeywordMatchPropertyFunction.LOCAL_NAME,
+                uri -> new KeywordMatchPropertyFunction(this::keywordIndex));
+        // A TDB2 store already holds products from earlier runs; the index only lives in memory.
+        Dataset store = dataset;
+        if (!Txn.calculateRead(store, () -> store.getDefaultModel().isEmpty())) {
+            keywordIndex = KeywordIndex.incomplete();
+            Thread builder = new Thread(this::buildKeywordIndex, "rdf-keyword-index-build");
+            builder.setDaemon(true);
+            builder.start();
+        }
+    }
+
+    /**
+     * Builds the keyword index from the store without blocking startup or writes, then re-indexes the
+     * products written meanwhile and publishes it. Until then keyword queries scan the store.
+     */
+    private void buildKeywordIndex() {
+        long start = System.currentTimeMillis();
+        KeywordIndex standIn = keywordIndex;
+        KeywordIndex built = new KeywordIndex();
+        try {
+            Dataset store = dataset;
+            Txn.executeRead(store, () -> built.putAll(store.getDefaultModel()));
+            // Writers hold this monitor until their index update is done, so the store and the recorded URIs agree.
+            synchronized (this) {
+                // A refresh has already published a complete index.
+                if (keywordIndex != standIn) return;
+                Dataset current = dataset;
+                Txn.executeRead(current, () -> built.reindex(current.getDefaultModel(), standIn.touched()));
+                keywordIndex = built;
+            }
+            logger.info("Keyword index built from the RDF store in {} ms", System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Failed to build the keyword index; keyword queries keep scanning the store", e);
+        }
     }
 
+    public KeywordIndex keywordIndex() {
+        return keywordIndex;
+    }
+
+    /**
+     * Brings the product graph up to date with the database: converts the products changed since the
+     * stored watermark (all products if there is none) in batches of {@value #SYNC_BATCH_SIZE}, removes
+     * the products deleted since then, and then moves the watermark. Runs at startup and periodically, which
+     * also picks up changes that are not applied live, such as new ratings.
+     */
     @Transactional(readOnly = true)
-    public void populateRdfStoreFromDatabase() {
-        logger.info("Starting to populate application RDF store from database...");
-        List<Product> allProducts = productRepository.findAll();
-        if (allProducts.isEmpty()) {
-            logger.info("No products found in the database to populate RDF store.");
-            return;
+    @Scheduled(fixedDelayString = "${fashion.rdf.store.sync-interval-ms:600000}",
+            initialDelayString = "${fashion.rdf.store.sync-interval-ms:600000}")
+    public synchronized void synchronizeWithDatabase() {
+        long start = System.currentTimeMillis();
+        Instant syncStarted = Instant.now();
+        Dataset store = dataset;
+        Instant watermark = Txn.calculateRead(store, () -> readWatermark(store));
+        logger.info(watermark == null ? "Populating application RDF store from database..."
+                : "Synchronizing application RDF store with products changed since {}...", watermark);
+
+        int converted = loadProducts(store, keywordIndex, watermark);
+        int removed = removeDeletedProducts(store, watermark);
+        Instant nextWatermark = syncStarted.minus(rdfConfigProperties.getSyncOverlap());
+        long size = Txn.calculateWrite(store, () -> {
+            writeWatermark(store, nextWatermark);
+            return store.getDefaultModel().size();
+        });
+        long elapsed = System.currentTimeMillis() - start;
+        if (watermark == null) rebuildTimer.record(elapsed, TimeUnit.MILLISECONDS);
+        logger.info("Application RDF store synchronized in {} ms: {} products converted ({}/s), {} removed. Total statements: {}",
+                elapsed, converted, perSecond(converted, elapsed), removed, size);
+    }
+
+    /**
+     * Converts the products changed since the watermark (all products if it is null) into the dataset and
+     * the keyword index, one write transaction per batch unless the caller already holds one. Each batch is
+     * converted on the conversion pool while the next one is read from the database.
+     *
+     * @return The number of products converted.
+     */
+    private int loadProducts(Dataset store, KeywordIndex index, Instant watermark) {
+        int converted = 0;
+        long afterId = 0L;
+        boolean more = true;
+        List<Long> pendingIds = List.of();
+        ForkJoinTask<List<Model>> pending = null;
+        do {
+            List<Long> ids = List.of();
+            ForkJoinTask<List<Model>> conversion = null;
+            if (more) {
+                ids = watermark == null
+                        ? productRepository.findIdsAfter(afterId, Limit.of(SYNC_BATCH_SIZE))
+                        : productRepository.findIdsChangedSinceAfter(watermark, afterId, Limit.of(SYNC_BATCH_SIZE));
+                more = ids.size() == SYNC_BATCH_SIZE;
+                if (!ids.isEmpty()) {
+                    afterId = ids.get(ids.size() - 1);
+                    conversion = conversionPool.submit(new ProductConversion(productRepository.findWithSellerAndReviewsByIdIn(ids)));
+                }
+            }
+            if (pending != null) {
+                storeConverted(store, index, pendingIds, pending.join());
+                converted += pendingIds.size();
+            }
+            // Everything the conversion reads was fetched with the products, so it can go on after they are
+            // detached. Detaching keeps memory flat over a large catalog.
+            entityManager.clear();
+            pendingIds = ids;
+            pending = conversion;
+        } while (pending != null);
+        return converted;
+    }
+
+    /**
+     * Replaces the products with the converted partitions; an ID without a converted product (deleted
+     * since its ID was read) is just removed.
+     */
+    private void storeConverted(Dataset store, KeywordIndex index, List<Long> ids, List<Model> partitions) {
+        Txn.executeWrite(store, () -> {
+            Model graph = store.getDefaultModel();
+            ids.forEach(id -> removeProductTriples(graph, id));
+            partitions.forEach(graph::add);
+        });
+        partitions.forEach(index::putAll);
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Converts products into graphs of at most {@value #CONVERSION_PARTITION_SIZE} products each, splitting
+     * the list in halves on the pool. Every partition has its own model, so no model is written by two
+     * threads. The products' seller and reviews must already be loaded: no database access happens here.
+     */
+    private final class ProductConversion extends RecursiveTask<List<Model>> {
+
+        private final List<Product> products;
+
+        private ProductConversion(List<Product> products) {
+            this.products = products;
         }
-        Model allProductsRdf = convertProductsToRdf(allProducts);
-        synchronized (this.applicationRdfStore) {
-            this.applicationRdfStore.add(allProductsRdf);
+
+        @Override
+        protected List<Model> compute() {
+            if (products.size() <= CONVERSION_PARTITION_SIZE) {
+                Model partition = ModelFactory.createDefaultModel();
+                products.forEach(product -> addProductTriples(partition, product));
+                return List.of(partition);
+            }
+            int middle = products.size() / 2;
+            ProductConversion second = new ProductConversion(products.subList(middle, products.size()));
+            second.fork();
+            List<Model> partitions = new ArrayList<>(new ProductConversion(products.subList(0, middle)).compute());
+            partitions.addAll(second.join());
+            return partitions;
         }
-        logger.info("Successfully populated application RDF store with {} products. Total statements: {}", allProducts.size(), this.applicationRdfStore.size());
+    }
+
+    private static long perSecond(long count, long millis) {
+        return millis > 0 ? count * 1000 / millis : count;
+    }
+
+    private static Instant readWatermark(Dataset store) {
+        Statement statement = store.getNamedModel(STORE_STATE_GRAPH).getProperty(SYNC_STATE, SYNC_WATERMARK);
+        return statement != null ? Instant.parse(statement.getLiteral().getLexicalForm()) : null;
+    }
+
+    private static void writeWatermark(Dataset store, Instant watermark) {
+        Model state = store.getNamedModel(STORE_STATE_GRAPH);
+        state.removeAll(SYNC_STATE, SYNC_WATERMARK, null);
+        state.add(SYNC_STATE, SYNC_WATERMARK, state.createTypedLiteral(watermark.toString(), XSDDatatype.XSDdateTime));
+    }
+
+    /**
+     * Removes the products deleted since the watermark, as recorded in {@link ProductDeletion}s. Nothing was
+     * deleted from a store without a watermark, which has just been filled. If the watermark is older than
+     * the deletion records are kept, every product ID in the store is checked against the database instead.
+     */
+    private int removeDeletedProducts(Dataset store, Instant watermark) {
+        if (watermark == null) return 0;
+        Instant oldestRecorded = Instant.now().minus(rdfConfigProperties.getDeletionRetention());
+        List<Long> deleted = watermark.isBefore(oldestRecorded)
+                ? findMissingProducts(store)
+                : productDeletionRepository.findProductIdsDeletedSince(watermark);
+        if (deleted.isEmpty()) return 0;
+        String productUriPrefix = rdfConfigProperties.getProductUriPrefix();
+        long removed = Txn.calculateWrite(store, () -> deleted.stream()
+                .filter(id -> removeProductTriples(store.getDefaultModel(), id))
+                .count());
+        deleted.forEach(id -> keywordIndex.remove(productUriPrefix + id));
+        if (removed > 0) generation.incrementAndGet();
+        return (int) removed;
+    }
+
+    /**
+     * @return The IDs of the products in the store that are no longer in the database.
+     */
+    private List<Long> findMissingProducts(Dataset store) {
+        logger.info("RDF store watermark is older than the product deletion records; comparing all product IDs");
+        Set<Long> existing = new HashSet<>(productRepository.findAllIds());
+        String productUriPrefix = rdfConfigProperties.getProductUriPrefix();
+        return Txn.calculateRead(store, () -> {
+            List<Long> ids = new ArrayList<>();
+            store.getDefaultModel().listSubjectsWithProperty(RDF.type, SCHEMA_Product).forEachRemaining(subject -> {
+                String uri = subject.getURI();
+                if (uri == null || !uri.startsWith(productUriPrefix)) return;
+                try {
+                    Long id = Long.valueOf(uri.substring(productUriPrefix.length()));
+                    if (!existing.contains(id)) ids.add(id);
+                } catch (NumberFormatException e) {
+                    // Not a product of this application.
+                }
+            });
+            return ids;
+        });
+    }
+
+    /**
+     * Drops the product deletion records older than the retention; a store last synchronized before then
+     * falls back to comparing all product IDs.
+     */
+    @Scheduled(fixedDelayString = "${fashion.rdf.store.deletion-prune-interval-ms:86400000}")
+    public void pruneProductDeletions() {
+        int pruned = productDeletionRepository.deleteRecordedBefore(Instant.now().minus(rdfConfigProperties.getDeletionRetention()));
+        if (pruned > 0) logger.info("Pruned {} product deletion records", pruned);
     }
 
     public Model convertProductToRdf(Product product) {
@@ -137,10 +434,17 @@ public class RdfConversionService {
         model.setNsPrefix("schema", SCHEMA_NS);
         model.setNsPrefix("xsd", XSDDatatype.XSD + "#");
         model.setNsPrefix("data", rdfConfigProperties.getDataBaseUri());
+        addProductTriples(model, product);
+        return model;
+    }
 
+    /**
+     * Adds the statements describing the product, its category, seller and reviews to the model.
+     */
+    private void addProductTriples(Model model, Product product) {
         if (product == null || product.getId() == null) {
             logger.warn("Product or Product ID is null, cannot convert to RDF.");
-            return model;
+            return;
         }
 
         String productUri = rdfConfigProperties.getProductUriPrefix() + product.getId();
@@ -234,7 +538,6 @@ public class RdfConversionService {
                 productResource.addProperty(hasReviewProp, reviewResource);
             }
         }
-        return model;
     }
 
     public Model convertProductsToRdf(List<Product> products) {
@@ -246,29 +549,65 @@ public class RdfConversionService {
 
         if (products == null || products.isEmpty()) return mainModel;
         for (Product product : products) {
-            if (product != null) {
-                Model productModel = convertProductToRdf(product);
-                mainModel.add(productModel);
-            }
+            if (product != null) addProductTriples(mainModel, product);
         }
         return mainModel;
     }
 
-    public Model getApplicationRdfStore() {
-        return this.applicationRdfStore;
+    /**
+     * Runs the reader against a snapshot of the product graph in a read transaction. Writes committed
+     * while the reader runs are not visible to it and do not wait for it. The model must not be used after
+     * the reader returns.
+     */
+    public <T> T readStore(Function<Model, T> reader) {
+        Dataset store = dataset;
+        return Txn.calculateRead(store, () -> reader.apply(store.getDefaultModel()));
+    }
+
+    /**
+     * A number that changes whenever a write to the product graph has been committed or published. A value
+     * read before {@link #readStore(Function)} is never newer than the snapshot the reader then sees, so it
+     * can key results computed from that snapshot.
+     */
+    public long storeGeneration() {
+        return generation.get();
     }
 
+    /**
+     * Rebuilds the store from every product and publishes it at once; readers see the old graph until the
+     * new one is complete, never a partly loaded one. The in-memory store is built as a new dataset and
+     * swapped in. TDB2 is rebuilt in a single write transaction, which readers do not see until it commits.
+     * Live updates wait until the rebuild is published.
+     */
     @Transactional(readOnly = true)
     public synchronized void refreshRdfStore() {
+        long start = System.currentTimeMillis();
+        Instant nextWatermark = Instant.now().minus(rdfConfigProperties.getSyncOverlap());
         logger.info("Refreshing application RDF store...");
-        this.applicationRdfStore.removeAll();
-        populateRdfStoreFromDatabase();
-        logger.info("Application RDF store refreshed. Total statements: {}", this.applicationRdfStore.size());
+        Dataset store = rdfConfigProperties.isPersistentStore() ? dataset : createInMemoryDataset();
+        KeywordIndex index = new KeywordIndex();
+        long[] converted = new long[1];
+        long size = Txn.calculateWrite(store, () -> {
+            store.getDefaultModel().removeAll();
+            store.getNamedModel(STORE_STATE_GRAPH).removeAll();
+            converted[0] = loadProducts(store, index, null);
+            writeWatermark(store, nextWatermark);
+            return store.getDefaultModel().size();
+        });
+        // Readers still on the old in-memory dataset finish on it; it is garbage once they are done.
+        keywordIndex = index;
+        dataset = store;
+        // Also after the batch writes above, which TDB2 readers did not see until now.
+        generation.incrementAndGet();
+        long elapsed = System.currentTimeMillis() - start;
+        rebuildTimer.record(elapsed, TimeUnit.MILLISECONDS);
+        logger.info("Application RDF store refreshed in {} ms: {} products converted ({}/s). Total statements: {}",
+                elapsed, converted[0], perSecond(converted[0], elapsed), size);
     }
 
     /**
-     * Adds or updates a product's RDF representation in the main in-memory store.
-     * If the product already exists, its old triples are removed before adding new ones.
+     * Adds or updates a product's RDF representation in the application RDF store.
+     * If the product already exists, its old triples (and those of its reviews) are removed before adding new ones.
      * This method needs to be called when a product is created or updated in the relational DB.
      *
      * @param product The Product entity to add or update in the RDF store.
@@ -283,80 +622,79 @@ public class RdfConversionService {
             logger.warn("Cannot add/update null product or product with null ID to RDF store.");
             return;
         }
-        // Ensure product is fully loaded, especially lazy collections like reviews.
-        // This might require fetching it again with joins or ensuring the calling context is transactional.
-        // For simplicity here, we assume `product` passed in is sufficiently populated.
-        // If ProductService calls this, it should pass the fully saved/updated Product entity.
-
         String productUri = rdfConfigProperties.getProductUriPrefix() + product.getId();
-        Resource productResource = applicationRdfStore.getResource(productUri);
-
-        // Remove existing statements for this product to handle updates correctly.
-        // This includes statements where the product is a subject, and also
-        // statements where related resources (like reviews specific to this product) are subjects.
-        // A simple way for reviews is to also remove by their URIs if they are derived from product ID.
-        if (applicationRdfStore.containsResource(productResource)) {
-            logger.debug("Removing existing RDF for product URI: {}", productUri);
-            // Remove all statements where productResource is the subject
-            applicationRdfStore.removeAll(productResource, null, null);
-            // Remove all statements where productResource is the object (less common for product updates but good practice)
-            applicationRdfStore.removeAll(null, null, productResource);
-
-            // More complex: also remove associated review resources if their URIs are known/derivable
-            // For example, if reviews are http://.../review/{productId}/{reviewerId} or /review/{reviewId}
-            // This requires careful handling to not remove unrelated data.
-            // For now, convertProductToRdf recreates review nodes, so old review nodes linked
-            // from an old version of the product will be orphaned if not explicitly removed.
-            // A better approach for review removal: iterate statements `?s hasReview productResource`
-            // and then remove all statements about `?s`.
-            // For now, we rely on the fact that `convertProductToRdf` will re-add current reviews.
-        }
-
         Model productRdf = convertProductToRdf(product); // This will generate RDF for the product and its current reviews
-        applicationRdfStore.add(productRdf);
+        Dataset current = dataset;
+        long size = Txn.calculateWrite(current, () -> {
+            Model store = current.getDefaultModel();
+            removeProductTriples(store, product.getId());
+            store.add(productRdf);
+            return store.size();
+        });
+        keywordIndex.putAll(productRdf);
+        generation.incrementAndGet();
         logger.info("RDF data for product ID {} (URI: {}) added/updated in application RDF store. Store size: {}",
-                product.getId(), productUri, applicationRdfStore.size());
+                product.getId(), productUri, size);
     }
 
     /**
-     * Removes a product's RDF representation from the main in-memory store.
-     * This method needs to be called when a product is deleted from the relational DB.
+     * Replaces the given products in the application RDF store and removes the deleted ones, in one
+     * write transaction. Called by RdfSyncService with products loaded in a transaction, so their
+     * reviews and seller can still be fetched.
      *
-     * @param productId The ID of the product to remove.
+     * @param products   Current state of changed products.
+     * @param deletedIds IDs of products that no longer exist.
      */
-    public synchronized void removeProductFromRdfStore(Long productId) {
-        if (productId == null) {
-            logger.warn("Cannot remove product with null ID from RDF store.");
-            return;
-        }
-        String productUri = rdfConfigProperties.getProductUriPrefix() + productId;
-        Resource productResource = applicationRdfStore.getResource(productUri);
-
-        if (applicationRdfStore.containsResource(productResource)) {
-            // Before removing the product resource itself, remove associated resources like reviews that are linked to it
-            // This avoids orphaned review data if reviews are only linked via hasReview from the product
-            StmtIterator reviewStmts = applicationRdfStore.listStatements(productResource, hasReviewProp, (RDFNode) null);
-            List<Resource> reviewsToRemove = new ArrayList<>();
-            while(reviewStmts.hasNext()){
-                Resource reviewNode = reviewStmts.nextStatement().getResource();
-                reviewsToRemove.add(reviewNode);
-            }
-            reviewStmts.close();
-
-            for(Resource reviewToRemove : reviewsToRemove){
-                logger.debug("Removing associated review RDF: {}", reviewToRemove.getURI());
-                applicationRdfStore.removeAll(reviewToRemove, null, null); // Remove all statements about the review
-                applicationRdfStore.removeAll(null, null, reviewToRemove); // Remove statements where review is object
-            }
-
-            // Now remove all statements about the product resource itself
-            applicationRdfStore.removeAll(productResource, null, null);
-            applicationRdfStore.removeAll(null, null, productResource); // Also where it's an object
+    public synchronized void applyProductChanges(List<Product> products, Collection<Long> deletedIds) {
+        if (products.isEmpty() && deletedIds.isEmpty()) return;
+        Model productsRdf = convertProductsToRdf(products);
+        Dataset current = dataset;
+        long size = Txn.calculateWrite(current, () -> {
+            Model store = current.getDefaultModel();
+            products.forEach(product -> removeProductTriples(store, product.getId()));
+            deletedIds.forEach(id -> removeProductTriples(store, id));
+            store.add(productsRdf);
+            return store.size();
+        });
+        keywordIndex.putAll(productsRdf);
+        deletedIds.forEach(id -> keywordIndex.remove(rdfConfigProperties.getProductUriPrefix() + id));
+        generation.incrementAndGet();
+        logger.debug("RDF data for {} changed and {} deleted products applied to application RDF store. Store size: {}",
+                products.size(), deletedIds.size(), size);
+    }
 
-            logger.info("RDF data for product ID {} (URI: {}) removed from application RDF store. Store size: {}",
-                    productId, productUri, applicationRdfStore.size());
-        } else {
-            logger.warn("Product URI {} not found in RDF store for removal.", productUri);
+    /**
+     * Removes all statements about a product and its reviews (including their rating nodes), and all
+     * statements pointing at them. Must be called in a write transaction.
+     *
+     * @return Whether the product was in the store.
+     */
+    private boolean removeProductTriples(Model store, Long productId) {
+        Resource productResource = store.getResource(rdfConfigProperties.getProductUriPrefix() + productId);
+        if (!store.containsResource(productResource)) return false;
+
+        // Before removing the product resource itself, remove associated resources like reviews that are linked to it
+        // This avoids orphaned review data if reviews are only linked via hasReview from the product
+        List<Resource> reviewsToRemove = new ArrayList<>();
+        if (hasReviewProp != null) {
+            store.listObjectsOfProperty(productResource, hasReviewProp).forEachRemaining(node -> {
+                if (node.isResource()) reviewsToRemove.add(node.asResource());
+            });
         }
+        for (Resource reviewToRemove : reviewsToRemove) {
+            logger.debug("Removing associated review RDF: {}", reviewToRemove.getURI());
+            List<Resource> ratings = new ArrayList<>();
+            store.listObjectsOfProperty(reviewToRemove, SCHEMA_reviewRating).forEachRemaining(node -> {
+                if (node.isAnon()) ratings.add(node.asResource());
+            });
+            ratings.forEach(rating -> store.removeAll(rating, null, null));
+            store.removeAll(reviewToRemove, null, null); // Remove all statements about the review
+            store.removeAll(null, null, reviewToRemove); // Remove statements where review is object
+        }
+
+        // Now remove all statements about the product resource itself
+        store.removeAll(productResource, null, null);
+        store.removeAll(null, null, productResource); // Also where it's an object
+        return true;
     }
-}
\ No newline at end of file
+}
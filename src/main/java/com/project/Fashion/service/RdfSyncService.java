@@ -0,0 +1,268 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.event.ProductsImportedEvent;
+import com.project.Fashion.model.Product;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies committed product changes to the RDF store in the background.
+ * <p>
+ * Product writes only publish events; after commit, the changed product IDs go into a bounded queue and
+ * the request returns. Queuing an ID that is already waiting does nothing, so a burst of edits to one
+ * product is converted once. A single worker takes up to batch-size IDs at a time, reloads those
+ * products in a read-only transaction, and replaces them in the store in one write; IDs that no longer
+ * exist are removed. If the queue is full, further IDs are dropped and the worker runs
+ * {@link RdfConversionService#synchronizeWithDatabase()} instead, which finds them through the sync watermark.
+ * <p>
+ * If a batch fails, its products are applied one at a time so that one product that cannot be converted
+ * does not hold up the rest. A product that fails on its own goes back to the front of the queue; after
+ * {@value #MAX_ATTEMPTS} failures it is dropped and left to the periodic watermark sync. When no product of
+ * a batch could be applied, the store itself is assumed to be failing and the worker waits before retrying.
+ * <p>
+ * Publishes {@code rdf.sync.lag}, the age in seconds of the oldest change not yet in the store (0 when the
+ * store is current), {@code rdf.sync.queue.size}, and {@code rdf.sync.dropped}, the number of changes given up on.
+ */
+@Service
+@Slf4j
+public class RdfSyncService {
+
+    private static final long RETRY_DELAY_MS = 5_000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final RdfConversionService rdfConversionService;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final Duration batchDelay;
+    private final Counter droppedChanges;
+
+    private final Object lock = new Object();
+    // Product ID -> time its oldest unapplied change was queued, oldest first.
+    private LinkedHashMap<Long, Long> pending = new LinkedHashMap<>();
+    private long resyncRequestedAt;
+    // Queue time of the oldest change the worker is applying right now, 0 if idle.
+    private long inFlightSince;
+    // Product ID -> times it failed to apply on its own. Only used by the worker.
+    private final Map<Long, Integer> failedAttempts = new HashMap<>();
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public RdfSyncService(RdfConversionService rdfConversionService,
+                          ProductRepository productRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${fashion.rdf.sync.queue-capacity:10000}") int queueCapacity,
+                          @Value("${fashion.rdf.sync.batch-size:200}") int batchSize,
+                          @Value("${fashion.rdf.sync.batch-delay:200ms}") Duration batchDelay) {
+        this.rdfConversionService = rdfConversionService;
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchDelay = batchDelay;
+        Gauge.builder("rdf.sync.lag", this, RdfSyncService::lagSeconds)
+                .description("Age of the oldest product change not yet applied to the RDF store")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("rdf.sync.queue.size", this, RdfSyncService::queueSize)
+                .description("Products waiting to be applied to the RDF store")
+                .register(meterRegistry);
+        this.droppedChanges = Counter.builder("rdf.sync.dropped")
+                .description("Product changes given up on after failing to apply to the RDF store; the watermark sync applies them later")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "rdf-sync");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the worker. Changes still queued are not lost: they are newer than the sync watermark, so the
+     * sync at the next start picks them up.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(5_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        enqueue(List.of(event.productId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        enqueue(event.products().stream().map(ProductSnapshot::id).toList());
+    }
+
+    public void enqueue(Collection<Long> productIds) {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            for (Long id : productIds) {
+                if (id == null || pending.containsKey(id)) continue;
+                if (pending.size() >= queueCapacity) {
+                    if (resyncRequestedAt == 0) {
+                        resyncRequestedAt = now;
+                        log.warn("RDF sync queue is full ({} products); falling back to a watermark sync.", queueCapacity);
+                    }
+                    continue;
+                }
+                pending.put(id, now);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                synchronized (lock) {
+                    while (running && pending.isEmpty() && resyncRequestedAt == 0) lock.wait();
+                }
+                // Let a burst of changes arrive, so they share one batch.
+                Thread.sleep(batchDelay.toMillis());
+                applyNextBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void applyNextBatch() throws InterruptedException {
+        Map<Long, Long> batch = new LinkedHashMap<>();
+        boolean resync;
+        synchronized (lock) {
+            resync = resyncRequestedAt != 0;
+            long oldest = resync ? resyncRequestedAt : Long.MAX_VALUE;
+            resyncRequestedAt = 0;
+            Iterator<Map.Entry<Long, Long>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                Map.Entry<Long, Long> entry = iterator.next();
+                batch.put(entry.getKey(), entry.getValue());
+                oldest = Math.min(oldest, entry.getValue());
+                iterator.remove();
+            }
+            inFlightSince = oldest == Long.MAX_VALUE ? 0 : oldest;
+        }
+        try {
+            if (resync) {
+                try {
+                    rdfConversionService.synchronizeWithDatabase();
+                } catch (RuntimeException e) {
+                    log.warn("Watermark sync of the RDF store failed; retrying in {} ms: {}", RETRY_DELAY_MS, e.getMessage());
+                    requeue(batch, true);
+                    Thread.sleep(RETRY_DELAY_MS);
+                    return;
+                }
+            }
+            if (batch.isEmpty()) return;
+            try {
+                apply(batch.keySet());
+                if (!failedAttempts.isEmpty()) batch.keySet().forEach(failedAttempts::remove);
+            } catch (RuntimeException e) {
+                log.warn("Applying {} product changes to the RDF store failed; applying them one at a time: {}", batch.size(), e.getMessage());
+                applyOneByOne(batch);
+            }
+        } finally {
+            synchronized (lock) {
+                inFlightSince = 0;
+            }
+        }
+    }
+
+    private void applyOneByOne(Map<Long, Long> batch) throws InterruptedException {
+        Map<Long, Long> failed = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : batch.entrySet()) {
+            try {
+                apply(List.of(entry.getKey()));
+                failedAttempts.remove(entry.getKey());
+            } catch (RuntimeException e) {
+                int attempts = failedAttempts.merge(entry.getKey(), 1, Integer::sum);
+                if (attempts < MAX_ATTEMPTS) {
+                    failed.put(entry.getKey(), entry.getValue());
+                } else {
+                    failedAttempts.remove(entry.getKey());
+                    droppedChanges.increment();
+                    log.error("Giving up on applying product {} to the RDF store after {} attempts; the watermark sync will apply it: {}",
+                            entry.getKey(), attempts, e.getMessage());
+                }
+            }
+        }
+        requeue(failed, false);
+        if (failed.size() == batch.size()) {
+            log.warn("No product of the batch could be applied to the RDF store; retrying in {} ms.", RETRY_DELAY_MS);
+            Thread.sleep(RETRY_DELAY_MS);
+        }
+    }
+
+    private void apply(Collection<Long> productIds) {
+        long start = System.currentTimeMillis();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            List<Product> products = productRepository.findAllById(productIds);
+            Set<Long> deleted = new HashSet<>(productIds);
+            products.forEach(product -> deleted.remove(product.getId()));
+            // Converted inside the transaction, so reviews and seller load lazily.
+            rdfConversionService.applyProductChanges(products, deleted);
+        });
+        log.debug("Applied {} product changes to the RDF store in {} ms.", productIds.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Puts failed changes back at the front of the queue with their original queue times.
+     */
+    private void requeue(Map<Long, Long> batch, boolean resync) {
+        synchronized (lock) {
+            LinkedHashMap<Long, Long> merged = new LinkedHashMap<>(batch);
+            pending.forEach(merged::putIfAbsent);
+            pending = merged;
+            if (resync && resyncRequestedAt == 0) resyncRequestedAt = inFlightSince;
+        }
+    }
+
+    private double lagSeconds() {
+        synchronized (lock) {
+            long oldest = Long.MAX_VALUE;
+            if (!pending.isEmpty()) oldest = pending.values().iterator().next();
+            if (resyncRequestedAt != 0) oldest = Math.min(oldest, resyncRequestedAt);
+            if (inFlightSince != 0) oldest = Math.min(oldest, inFlightSince);
+            return oldest == Long.MAX_VALUE ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+        }
+    }
+
+    private int queueSize() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+}
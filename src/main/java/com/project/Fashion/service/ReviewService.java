@@ -1,12 +1,14 @@
 package com.project.Fashion.service;
 
 import com.project.Fashion.dto.ReviewDto;
+import com.project.Fashion.event.ProductChangedEvent;
 import com.project.Fashion.exception.exceptions.ProductNotFoundException;
 import com.project.Fashion.exception.exceptions.ReviewNotFoundException;
 import com.project.Fashion.exception.exceptions.UserNotFoundException;
 import com.project.Fashion.model.Order;
 import com.project.Fashion.model.OrderStatus;
 import com.project.Fashion.model.Product;
+import com.project.Fashion.model.ProductSnapshot;
 import com.project.Fashion.model.Review;
 import com.project.Fashion.model.User;
 import com.project.Fashion.repository.OrderRepository;
@@ -16,6 +18,7 @@ import com.project.Fashion.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -38,6 +41,7 @@ public class ReviewService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
 
@@ -52,11 +56,13 @@ public class ReviewService {
     public ReviewService(ReviewRepository reviewRepository,
                          ProductRepository productRepository,
                          UserRepository userRepository,
-                         OrderRepository orderRepository) {
+                         OrderRepository orderRepository,
+                         ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     private User getAuthenticatedUser() {
@@ -166,6 +172,7 @@ public class ReviewService {
             logger.warn("Product not found with ID {} during rating stats update. Cannot update product rating.", productId);
             return;
         }
+        ProductSnapshot before = ProductSnapshot.of(product);
         List<Review> reviewsForProduct = reviewRepository.findByProductId(productId);
         if (reviewsForProduct.isEmpty()) {
             product.setAverageRating(0.0f);
@@ -176,6 +183,7 @@ public class ReviewService {
             product.setNumOfReviews(reviewsForProduct.size());
         }
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, ProductSnapshot.of(product)));
         logger.info("Updated rating stats for product ID {}: AvgRating={}, NumReviews={}",
                 productId, product.getAverageRating(), product.getNumOfReviews());
     }
@@ -1,256 +1,421 @@
 package com.project.Fashion.service;
 
+import com.project.Fashion.config.CacheConfig;
 import com.project.Fashion.config.RdfConfigProperties;
+import com.project.Fashion.exception.exceptions.InvalidFieldException;
+import com.project.Fashion.exception.exceptions.SparqlQueryRejectedException;
+import com.project.Fashion.exception.exceptions.SparqlQueryTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.resultset.ResultsWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Pageable; // For Sort info
 import org.springframework.data.domain.Sort;    // For Sort info
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+/**
+ * Runs SPARQL queries against the application RDF store.
+ * <p>
+ * The fixed searches are {@link PreparedSparqlQuery} templates: each distinct template is parsed and
+ * optimized on first use and cached, and user input is bound to template variables instead of being
+ * formatted into the query text. Ad-hoc queries are parsed per call by {@link #parseQuery(String)}, and
+ * {@link #streamQuery(Query, SparqlResultFormat, OutputStream)} writes their results as they are produced.
+ * <p>
+ * Results of the fixed searches are cached in the {@value CacheConfig#SPARQL_RESULTS} cache, keyed by query
+ * text, parameters and paging plus the {@link RdfConversionService#storeGeneration() store generation}. Every
+ * write to the store moves the generation, so entries of older generations are simply never looked up again
+ * and age out of the cache; nothing has to be invalidated. Only results that took at least the configured
+ * minimum cost to compute are admitted, so cheap queries do not push out expensive ones.
+ * <p>
+ * Ad-hoc queries run within a budget: at most a maximum number of rows, and first-result and overall
+ * timeouts. Queries that join groups of patterns sharing no variable are refused before they run unless
+ * a LIMIT lets them stop early. Refused and timed-out queries are counted in the
+ * {@code sparql.queries.rejected} and {@code sparql.queries.timeouts} metrics.
+ */
 @Service
 public class SparqlQueryService {
 
     private static final Logger logger = LoggerFactory.getLogger(SparqlQueryService.class);
 
+    /**
+     * One page of a semantic search and the number of products matching it.
+     *
+     * @param rows  Per product on the page: "product" (URI), "productName", "description", "price" and "rating".
+     * @param total Number of distinct matching products.
+     */
+    public record SemanticSearchResult(List<Map<String, String>> rows, long total) {
+    }
+
+    // order is the sort applied to the rows after the query, empty if the query text fixes it.
+    private record ResultKey(long storeGeneration, String query, Map<String, String> parameters, String order, long limit, long offset) {
+    }
+
     private final RdfConversionService rdfConversionService;
     private final RdfConfigProperties rdfConfigProperties;
+    private final Cache resultCache;
+    private final long minCostToCacheNanos;
+    private final Duration queryTimeout;
+    private final Duration firstResultTimeout;
+    private final long maxRows;
+    private final Counter rejectedQueries;
+    private final Counter timedOutQueries;
+    // Template text -> compiled query. The templates are built from a fixed set of clauses, so this stays small.
+    private final Map<String, PreparedSparqlQuery> preparedQueries = new ConcurrentHashMap<>();
 
     @Autowired
-    public SparqlQueryService(RdfConversionService rdfConversionService, RdfConfigProperties rdfConfigProperties) {
+    public SparqlQueryService(RdfConversionService rdfConversionService, RdfConfigProperties rdfConfigProperties,
+                              CacheManager cacheManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${fashion.sparql.cache.min-cost:5ms}") Duration minCostToCache,
+                              @Value("${fashion.sparql.query.timeout:10s}") Duration queryTimeout,
+                              @Value("${fashion.sparql.query.first-result-timeout:2s}") Duration firstResultTimeout,
+                              @Value("${fashion.sparql.query.max-rows:10000}") long maxRows) {
         this.rdfConversionService = rdfConversionService;
         this.rdfConfigProperties = rdfConfigProperties;
+        this.resultCache = cacheManager.getCache(CacheConfig.SPARQL_RESULTS);
+        this.minCostToCacheNanos = minCostToCache.toNanos();
+        this.queryTimeout = queryTimeout;
+        this.firstResultTimeout = firstResultTimeout;
+        this.maxRows = Math.max(1, maxRows);
+        this.rejectedQueries = Counter.builder("sparql.queries.rejected")
+                .description("Ad-hoc SPARQL queries refused before running for exceeding the query budget")
+                .register(meterRegistry);
+        this.timedOutQueries = Counter.builder("sparql.queries.timeouts")
+                .description("Ad-hoc SPARQL queries cancelled for exceeding a timeout")
+                .register(meterRegistry);
+    }
+
+    private PreparedSparqlQuery prepare(String selectAndWhere) {
+        String template = String.format("PREFIX fash: <%s> PREFIX schema: <%s> %s",
+                rdfConfigProperties.getOntologyBaseUri(), RdfConversionService.SCHEMA_NS, selectAndWhere);
+        return preparedQueries.computeIfAbsent(template, PreparedSparqlQuery::new);
     }
 
-    public List<Map<String, String>> executeSparqlQuery(String sparqlQueryString) {
-        Model model = rdfConversionService.getApplicationRdfStore();
-        if (model == null || model.isEmpty()) {
-            logger.warn("RDF model is empty or null. Cannot execute SPARQL query.");
-            return new ArrayList<>();
+    private List<Map<String, String>> executePrepared(PreparedSparqlQuery query, Map<String, String> parameters, long limit, long offset) {
+        return executeCached(new ResultKey(rdfConversionService.storeGeneration(), query.queryString(), parameters, "", limit, offset),
+                model -> immutableRows(query.execute(model, parameters, limit, offset)), List.of());
+    }
+
+    /**
+     * Parses an ad-hoc query and fits it to the query budget: a LIMIT above the maximum row count, or none,
+     * is replaced by the maximum. The rows are then capped without error; clients that need more must page.
+     *
+     * @throws InvalidFieldException        If the text is not a valid SPARQL query.
+     * @throws SparqlQueryRejectedException If the query has a cartesian join and must read all of it.
+     */
+    public Query parseQuery(String sparqlQueryString) {
+        Query query;
+        try {
+            query = QueryFactory.create(sparqlQueryString);
+        } catch (QueryParseException e) {
+            throw new InvalidFieldException("Invalid SPARQL query: " + e.getMessage());
         }
 
-        List<Map<String, String>> resultsList = new ArrayList<>();
-        logger.debug("Executing SPARQL Query: {}", sparqlQueryString);
-
-        try (QueryExecution qe = QueryExecutionFactory.create(sparqlQueryString, model)) {
-            ResultSet results = qe.execSelect();
-            List<String> resultVars = results.getResultVars();
-
-            while (results.hasNext()) {
-                QuerySolution soln = results.nextSolution();
-                Map<String, String> resultMap = new HashMap<>();
-                for (String var : resultVars) {
-                    RDFNode node = soln.get(var);
-                    if (node != null) {
-                        if (node.isLiteral()) {
-                            resultMap.put(var, node.asLiteral().getLexicalForm());
-                        } else if (node.isResource()) {
-                            resultMap.put(var, node.asResource().getURI());
-                        } else {
-                            resultMap.put(var, node.toString());
-                        }
-                    } else {
-                        resultMap.put(var, null);
-                    }
+        // A LIMIT stops a cross product early, unless the rows must all be seen first to sort or group them.
+        boolean stopsEarly = query.isAskType()
+                || (query.hasLimit() && !query.hasOrderBy() && !query.hasGroupBy() && !query.hasAggregators());
+        if (!stopsEarly && query.getQueryPattern() != null) {
+            CartesianJoinFinder.find(Algebra.compile(query.getQueryPattern())).ifPresent(join -> {
+                rejectedQueries.increment();
+                logger.warn("Rejected SPARQL query with a cartesian join ({}): [{}]", join, sparqlQueryString);
+                throw new SparqlQueryRejectedException("SPARQL query rejected: it joins " + join +
+                        ", which pairs every result of one with every result of the other. " +
+                        "Connect them through a shared variable, or add a LIMIT without ORDER BY or GROUP BY.");
+            });
+        }
+
+        if (!query.hasLimit() || query.getLimit() > maxRows) query.setLimit(maxRows);
+        return query;
+    }
+
+    /**
+     * Runs a query of any form and writes its results to the stream as they are produced, holding only
+     * the current row or triple. The read snapshot stays open until the last byte is written; writers are
+     * not blocked meanwhile. Rows are not collected and therefore not cached. CONSTRUCT results may repeat
+     * a triple, since removing duplicates would mean remembering every triple written. DESCRIBE collects
+     * each described resource's triples before writing them.
+     * <p>
+     * The query is cancelled if no result is ready within the first-result timeout or it is not done
+     * within the overall timeout. Output written before that may already have been sent.
+     *
+     * @param query  As returned by {@link #parseQuery(String)}.
+     * @param format Must fit the query form; see {@link SparqlResultFormat#negotiate}.
+     * @throws SparqlQueryTimeoutException If the query was cancelled for taking too long.
+     */
+    public void streamQuery(Query query, SparqlResultFormat format, OutputStream out) {
+        long start = System.currentTimeMillis();
+        try {
+            streamResults(query, format, out);
+        } catch (QueryCancelledException e) {
+            timedOutQueries.increment();
+            logger.warn("SPARQL query cancelled after {} ms: [{}]", System.currentTimeMillis() - start, query);
+            throw new SparqlQueryTimeoutException("SPARQL query timed out: results must start within " +
+                    firstResultTimeout.toMillis() + " ms and finish within " + queryTimeout.toMillis() + " ms.");
+        }
+        logger.info("Streamed {} SPARQL query results as {} in {} ms.", query.queryType(), format, System.currentTimeMillis() - start);
+    }
+
+    private void streamResults(Query query, SparqlResultFormat format, OutputStream out) {
+        rdfConversionService.readStore(model -> {
+            try (QueryExecution qe = QueryExecution.create()
+                    .query(query)
+                    .model(model)
+                    .initialTimeout(firstResultTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .overallTimeout(queryTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .build()) {
+                if (query.isSelectType()) {
+                    ResultsWriter.create().lang(format.lang()).write(out, qe.execSelect());
+                } else if (query.isAskType()) {
+                    ResultsWriter.create().lang(format.lang()).write(out, qe.execAsk());
+                } else {
+                    Iterator<Triple> triples = query.isConstructType() ? qe.execConstructTriples() : qe.execDescribeTriples();
+                    StreamRDF stream = StreamRDFWriter.getWriterStream(out, format.lang());
+                    stream.start();
+                    triples.forEachRemaining(stream::triple);
+                    stream.finish();
                 }
-                resultsList.add(resultMap);
             }
+            return null;
+        });
+    }
+
+    // Cached rows are shared between callers, so neither the list nor the rows may be changed.
+    private static List<Map<String, String>> immutableRows(List<Map<String, String>> rows) {
+        return rows.stream().map(Collections::unmodifiableMap).toList();
+    }
+
+    /**
+     * Returns the cached result for the key, or runs the query on a store snapshot. The key's generation
+     * must be read before the snapshot is taken: a write committing in between then leaves the result
+     * newer than its key, never older. Failed queries are logged and give the empty result, uncached.
+     * The query must return a value that is safe to share.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T executeCached(ResultKey key, Function<Model, T> query, T empty) {
+        Cache.ValueWrapper cached = resultCache.get(key);
+        if (cached != null) {
+            logger.debug("SPARQL result served from cache for query [{}].", key.query());
+            return (T) cached.get();
+        }
+
+        long start = System.nanoTime();
+        T results;
+        try {
+            results = rdfConversionService.readStore(model -> {
+                if (model == null || model.isEmpty()) {
+                    logger.warn("RDF model is empty or null. Cannot execute SPARQL query.");
+                    return empty;
+                }
+                return query.apply(model);
+            });
         } catch (QueryParseException qpe) {
-            logger.error("SPARQL Query Parse Exception: {} for query: [{}]", qpe.getMessage(), sparqlQueryString, qpe);
+            logger.error("SPARQL Query Parse Exception: {} for query: [{}]", qpe.getMessage(), key.query(), qpe);
+            return empty;
         } catch (Exception e) {
-            logger.error("Error executing SPARQL query [{}]: {}", sparqlQueryString, e.getMessage(), e);
+            logger.error("Error executing SPARQL query [{}] with parameters {}: {}", key.query(), key.parameters(), e.getMessage(), e);
+            return empty;
         }
-        logger.info("Executed SPARQL query. Results count: {}", resultsList.size());
-        return resultsList;
+        long cost = System.nanoTime() - start;
+        logger.info("Executed SPARQL query in {} ms.", cost / 1_000_000);
+
+        if (cost >= minCostToCacheNanos) resultCache.put(key, results);
+        return results;
     }
 
-    private String buildSemanticSearchWhereClause(String categoryName, String descriptionKeyword) {
+    /**
+     * Builds the WHERE clause of the semantic search. The category and keyword are not part of the text;
+     * they are bound to ?category and ?keyword, lower-cased, when the query runs. The keyword is looked up
+     * in the {@link KeywordIndex}, first, so only the matching products are visited at all.
+     */
+    private String buildSemanticSearchWhereClause(boolean byCategory, boolean byKeyword) {
         StringBuilder whereClause = new StringBuilder();
+        if (byKeyword) {
+            whereClause.append("  ?product fash:" + KeywordMatchPropertyFunction.LOCAL_NAME + " (?keyword schema:description) . \n");
+        }
         whereClause.append("  ?product a fash:FashionProduct . \n");
         // OPTIONAL clauses to ensure products are returned even if some properties are missing
         whereClause.append("  OPTIONAL { ?product schema:name ?productName . } \n");
         whereClause.append("  OPTIONAL { ?product schema:description ?description . } \n");
 
-        if (StringUtils.hasText(categoryName)) {
+        if (byCategory) {
             whereClause.append("  ?product fash:belongsToCategory ?categoryResource . \n");
             whereClause.append("  ?categoryResource schema:name ?catName . \n");
-            whereClause.append(String.format("  FILTER (lcase(str(?catName)) = lcase(\"%s\")) \n",
-                    categoryName.toLowerCase().replace("\"", "\\\"")));
-        }
-
-        if (StringUtils.hasText(descriptionKeyword)) {
-            // Ensure description exists for filtering, but make overall description optional for select
-            whereClause.append("  ?product schema:description ?descForFilter . \n"); // This description is for filtering
-            whereClause.append(String.format("  FILTER regex(str(?descForFilter), \"%s\", \"i\") \n",
-                    descriptionKeyword.replace("\"", "\\\"")));
+            whereClause.append("  FILTER (lcase(str(?catName)) = ?category) \n");
         }
         return whereClause.toString();
     }
 
+    private static Map<String, String> semanticSearchParameters(String categoryName, String descriptionKeyword) {
+        Map<String, String> parameters = new HashMap<>();
+        if (StringUtils.hasText(categoryName)) parameters.put("category", categoryName.toLowerCase(Locale.ROOT));
+        if (StringUtils.hasText(descriptionKeyword)) parameters.put("keyword", descriptionKeyword.toLowerCase(Locale.ROOT));
+        return parameters;
+    }
+
 
     /**
-     * Searches for products semantically based on category name and/or a keyword in the description, with pagination and sorting.
+     * Searches for products semantically based on category name and/or a keyword in the description, with
+     * pagination and sorting.
+     * <p>
+     * The matching products are streamed once: each distinct product is counted for the total and offered
+     * to a heap that keeps only the best offset + page size rows in sort order, so one evaluation yields
+     * both the page and the total. Sortable properties are name, description, price, averageRating and id;
+     * missing values sort last, and ties are broken by product URI so pages are stable.
      *
      * @param categoryName Optional. The name of the category to filter by (case-insensitive).
      * @param descriptionKeyword Optional. A keyword to search for in the product's description (case-insensitive).
      * @param pageable Pageable object containing limit, offset, and sort information.
-     * @return A list of maps, where each map contains "product" (URI), "productName", and "description" for the current page.
+     * @return The rows of the current page and the total number of matching products.
      */
-    public List<Map<String, String>> searchProductsSemantic(String categoryName, String descriptionKeyword, Pageable pageable) {
+    public SemanticSearchResult searchProductsSemantic(String categoryName, String descriptionKeyword, Pageable pageable) {
+        SemanticSearchResult empty = new SemanticSearchResult(List.of(), 0);
         if (!StringUtils.hasText(categoryName) && !StringUtils.hasText(descriptionKeyword)) {
             logger.warn("Semantic product search called with no category name or description keyword. Returning empty list.");
-            return new ArrayList<>();
-        }
-
-        String whereClause = buildSemanticSearchWhereClause(categoryName, descriptionKeyword);
-
-        StringBuilder orderByClause = new StringBuilder();
-        if (pageable.getSort().isSorted()) {
-            orderByClause.append("ORDER BY ");
-            List<String> orders = new ArrayList<>();
-            for (Sort.Order order : pageable.getSort()) {
-                String property = order.getProperty();
-                // Map DTO property names to SPARQL variable names if necessary
-                // Example: if sorting by "name" (DTO), it maps to "?productName" in SPARQL
-                String sparqlVar;
-                if ("name".equalsIgnoreCase(property)) {
-                    sparqlVar = "?productName"; // Assuming ?productName is selected
-                } else if ("description".equalsIgnoreCase(property)) {
-                    sparqlVar = "?description"; // Assuming ?description is selected
-                } else {
-                    // Add mappings for other sortable RDF properties if needed
-                    // For now, skip sorting if property not directly mappable to selected SPARQL vars
-                    logger.warn("Unsupported sort property for SPARQL semantic search: {}", property);
-                    continue;
-                }
-                orders.add(order.isAscending() ? sparqlVar : "DESC(" + sparqlVar + ")");
-            }
-            if(!orders.isEmpty()){
-                orderByClause.append(String.join(" ", orders));
-            } else {
-                orderByClause.setLength(0); // Clear if no valid sort orders
-            }
+            return empty;
         }
 
-
-        String query = String.format(
-                "PREFIX fash: <%s> " +
-                        "PREFIX schema: <%s> " +
-                        "SELECT DISTINCT ?product ?productName ?description " +
+        String whereClause = buildSemanticSearchWhereClause(StringUtils.hasText(categoryName), StringUtils.hasText(descriptionKeyword));
+        PreparedSparqlQuery query = prepare(
+                "SELECT ?product ?productName ?description ?price ?rating " +
                         "WHERE { \n" +
                         whereClause +
-                        "} \n" +
-                        (!orderByClause.isEmpty() ? orderByClause + "\n" : "") +
-                        "LIMIT %d \n" +
-                        "OFFSET %d",
-                rdfConfigProperties.getOntologyBaseUri(),
-                RdfConversionService.SCHEMA_NS,
-                pageable.getPageSize(),
-                pageable.getOffset()
-        );
+                        "  OPTIONAL { ?product fash:hasPrice ?price . } \n" +
+                        "  OPTIONAL { ?product fash:averageRatingValue ?rating . } \n" +
+                        "}");
+        Map<String, String> parameters = semanticSearchParameters(categoryName, descriptionKeyword);
+        Comparator<Map<String, String>> order = semanticSearchOrder(pageable.getSort());
+        long offset = pageable.getOffset();
+        int pageSize = pageable.getPageSize();
 
         logger.info("Executing paginated semantic product search with categoryName='{}', descriptionKeyword='{}', limit={}, offset={}",
-                categoryName, descriptionKeyword, pageable.getPageSize(), pageable.getOffset());
-        return executeSparqlQuery(query);
+                categoryName, descriptionKeyword, pageSize, offset);
+        SemanticSearchResult result = executeCached(
+                new ResultKey(rdfConversionService.storeGeneration(), query.queryString(), parameters, pageable.getSort().toString(), pageSize, offset),
+                model -> {
+                    int keep = (int) Math.min(Integer.MAX_VALUE, offset + pageSize);
+                    // Worst row on top, so it is the one dropped when a better row arrives.
+                    PriorityQueue<Map<String, String>> best = new PriorityQueue<>(Math.min(keep, 1024) + 1, order.reversed());
+                    Set<String> seen = new HashSet<>();
+                    query.forEachRow(model, parameters, Query.NOLIMIT, 0, row -> {
+                        if (!seen.add(row.get("product"))) return;
+                        if (best.size() < keep) {
+                            best.add(row);
+                        } else if (order.compare(row, best.peek()) < 0) {
+                            best.poll();
+                            best.add(row);
+                        }
+                    });
+                    List<Map<String, String>> sorted = new ArrayList<>(best);
+                    sorted.sort(order);
+                    List<Map<String, String>> page = offset < sorted.size() ? sorted.subList((int) offset, sorted.size()) : List.of();
+                    return new SemanticSearchResult(immutableRows(page), seen.size());
+                },
+                empty);
+        logger.info("Total semantic search results count: {}", result.total());
+        return result;
     }
 
     /**
-     * Counts the total number of products matching the semantic search criteria.
-     *
-     * @param categoryName Optional. The name of the category.
-     * @param descriptionKeyword Optional. A keyword for the description.
-     * @return The total number of matching products.
+     * Row order for the semantic search. Text properties compare lexically and numeric ones numerically.
      */
-    public long countTotalSemanticSearchResults(String categoryName, String descriptionKeyword) {
-        if (!StringUtils.hasText(categoryName) && !StringUtils.hasText(descriptionKeyword)) {
-            // Consistent with searchProductsSemantic, if no criteria, count is 0 (or could be total products)
-            logger.warn("Semantic count called with no criteria.");
-            return 0;
+    private static Comparator<Map<String, String>> semanticSearchOrder(Sort sort) {
+        Comparator<Map<String, String>> order = (a, b) -> 0;
+        for (Sort.Order sortOrder : sort) {
+            String property = sortOrder.getProperty();
+            Comparator<Map<String, String>> byProperty;
+            if ("name".equalsIgnoreCase(property)) {
+                byProperty = Comparator.comparing(row -> row.get("productName"), nullsLast(sortOrder));
+            } else if ("description".equalsIgnoreCase(property)) {
+                byProperty = Comparator.comparing(row -> row.get("description"), nullsLast(sortOrder));
+            } else if ("price".equalsIgnoreCase(property)) {
+                byProperty = Comparator.comparing(row -> number(row.get("price")), nullsLast(sortOrder));
+            } else if ("averageRating".equalsIgnoreCase(property)) {
+                byProperty = Comparator.comparing(row -> number(row.get("rating")), nullsLast(sortOrder));
+            } else if ("id".equalsIgnoreCase(property)) {
+                byProperty = Comparator.comparing(row -> productId(row.get("product")), nullsLast(sortOrder));
+            } else {
+                logger.warn("Unsupported sort property for SPARQL semantic search: {}", property);
+                continue;
+            }
+            order = order.thenComparing(byProperty);
         }
+        return order.thenComparing(row -> row.get("product"), Comparator.nullsLast(Comparator.naturalOrder()));
+    }
 
-        String whereClause = buildSemanticSearchWhereClause(categoryName, descriptionKeyword);
+    private static <T extends Comparable<? super T>> Comparator<T> nullsLast(Sort.Order sortOrder) {
+        return Comparator.nullsLast(sortOrder.isAscending() ? Comparator.<T>naturalOrder() : Comparator.<T>reverseOrder());
+    }
 
-        String countQueryString = String.format(
-                "PREFIX fash: <%s> " +
-                        "PREFIX schema: <%s> " +
-                        "SELECT (COUNT(DISTINCT ?product) AS ?count) " +
-                        "WHERE { \n" +
-                        whereClause +
-                        "}",
-                rdfConfigProperties.getOntologyBaseUri(),
-                RdfConversionService.SCHEMA_NS
-        );
-
-        logger.info("Executing SPARQL count query for semantic search with categoryName='{}', descriptionKeyword='{}'",
-                categoryName, descriptionKeyword);
-
-        Model model = rdfConversionService.getApplicationRdfStore();
-        if (model == null || model.isEmpty()) {
-            logger.warn("RDF model is empty or null. Cannot execute SPARQL count query.");
-            return 0;
+    private static Double number(String lexicalForm) {
+        if (lexicalForm == null) return null;
+        try {
+            return Double.valueOf(lexicalForm);
+        } catch (NumberFormatException e) {
+            return null;
         }
+    }
 
-        long totalCount = 0;
-        try (QueryExecution qe = QueryExecutionFactory.create(countQueryString, model)) {
-            ResultSet results = qe.execSelect();
-            if (results.hasNext()) {
-                QuerySolution soln = results.nextSolution();
-                RDFNode countNode = soln.get("count");
-                if (countNode != null && countNode.isLiteral()) {
-                    totalCount = countNode.asLiteral().getLong();
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error executing SPARQL count query: {}", e.getMessage(), e);
+    private static Long productId(String productUri) {
+        if (productUri == null) return null;
+        try {
+            return Long.valueOf(productUri.substring(productUri.lastIndexOf('/') + 1));
+        } catch (NumberFormatException e) {
+            return null;
         }
-        logger.info("Total semantic search results count: {}", totalCount);
-        return totalCount;
     }
 
-
     // --- Existing methods ---
     public List<Map<String, String>> getAllProductNamesAndUris() {
-        String query = String.format(
-                "PREFIX fash: <%s> " +
-                        "PREFIX schema: <%s> " +
-                        "SELECT ?product ?name " +
+        PreparedSparqlQuery query = prepare(
+                "SELECT ?product ?name " +
                         "WHERE { " +
                         "  ?product a fash:FashionProduct . " +
                         "  OPTIONAL { ?product schema:name ?name . } " +
-                        "}",
-                rdfConfigProperties.getOntologyBaseUri(),
-                RdfConversionService.SCHEMA_NS
-        );
-        return executeSparqlQuery(query);
+                        "}");
+        return executePrepared(query, Map.of(), Query.NOLIMIT, 0);
     }
 
     public List<Map<String, String>> findProductsByCategoryName(String categoryName) {
-        String query = String.format(
-                "PREFIX fash: <%s> " +
-                        "PREFIX schema: <%s> " +
-                        "SELECT ?product ?productName " +
+        PreparedSparqlQuery query = prepare(
+                "SELECT ?product ?productName " +
                         "WHERE { " +
                         "  ?product a fash:FashionProduct ; " +
                         "           fash:belongsToCategory ?categoryResource ; " +
                         "           schema:name ?productName . " +
                         "  ?categoryResource schema:name ?catName . " +
-                        "  FILTER (lcase(str(?catName)) = lcase(\"%s\")) " +
-                        "}",
-                rdfConfigProperties.getOntologyBaseUri(),
-                RdfConversionService.SCHEMA_NS,
-                categoryName.toLowerCase().replace("\"", "\\\"")
-        );
+                        "  FILTER (lcase(str(?catName)) = ?category) " +
+                        "}");
         logger.info("Executing SPARQL query for category: {}", categoryName);
-        return executeSparqlQuery(query);
+        return executePrepared(query, Map.of("category", categoryName.toLowerCase(Locale.ROOT)), Query.NOLIMIT, 0);
     }
 }
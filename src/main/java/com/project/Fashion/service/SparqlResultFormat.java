@@ -0,0 +1,79 @@
+package com.project.Fashion.service;
+
+import org.apache.jena.query.Query;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.resultset.ResultSetLang;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The formats in which the results of an ad-hoc SPARQL query can be streamed. SELECT and ASK results are written as
+ * SPARQL results (JSON, CSV or TSV); CONSTRUCT and DESCRIBE results as N-Triples.
+ */
+public enum SparqlResultFormat {
+
+    JSON(ResultSetLang.RS_JSON, false, new MediaType("application", "sparql-results+json"), MediaType.APPLICATION_JSON),
+    CSV(ResultSetLang.RS_CSV, false, new MediaType("text", "csv", StandardCharsets.UTF_8)),
+    TSV(ResultSetLang.RS_TSV, false, new MediaType("text", "tab-separated-values", StandardCharsets.UTF_8)),
+    N_TRIPLES(Lang.NTRIPLES, true, new MediaType("application", "n-triples", StandardCharsets.UTF_8), MediaType.TEXT_PLAIN);
+
+    private final Lang lang;
+    private final boolean forGraphs;
+    // The first is sent as the Content-Type; the others are also accepted.
+    private final List<MediaType> mediaTypes;
+
+    SparqlResultFormat(Lang lang, boolean forGraphs, MediaType... mediaTypes) {
+        this.lang = lang;
+        this.forGraphs = forGraphs;
+        this.mediaTypes = List.of(mediaTypes);
+    }
+
+    public Lang lang() {
+        return lang;
+    }
+
+    public MediaType mediaType() {
+        return mediaTypes.get(0);
+    }
+
+    /**
+     * Picks the format for a query's results from the Accept header's media types, honouring quality values;
+     * no media types means anything is accepted. A type refused with q=0 stays refused when a less specific
+     * range such as text/* accepts it. For each query kind the first format declared is the default.
+     *
+     * @return The format, or empty if the client accepts none that fit the query.
+     */
+    public static Optional<SparqlResultFormat> negotiate(Query query, List<MediaType> accepted) {
+        boolean graphQuery = query.isConstructType() || query.isDescribeType();
+        List<MediaType> preferred = new ArrayList<>(accepted.isEmpty() ? List.of(MediaType.ALL) : accepted);
+        MimeTypeUtils.sortBySpecificity(preferred);
+        // Stable, so types of equal quality stay in order of specificity.
+        preferred.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        List<MediaType> refused = preferred.stream().filter(type -> type.getQualityValue() == 0).toList();
+        for (MediaType acceptable : preferred) {
+            if (acceptable.getQualityValue() == 0) continue;
+            for (SparqlResultFormat format : values()) {
+                if (format.forGraphs != graphQuery) continue;
+                boolean fits = format.mediaTypes.stream()
+                        .anyMatch(type -> acceptable.includes(type) && !isRefused(type, acceptable, refused));
+                if (fits) return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Whether a q=0 range more specific than the accepting one also covers the type.
+    private static boolean isRefused(MediaType type, MediaType acceptedBy, List<MediaType> refused) {
+        return refused.stream().anyMatch(range -> range.includes(type) && specificity(range) > specificity(acceptedBy));
+    }
+
+    private static int specificity(MediaType range) {
+        return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+    }
+}
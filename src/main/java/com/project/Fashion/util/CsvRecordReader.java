@@ -0,0 +1,114 @@
+package com.project.Fashion.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming reader for RFC 4180 CSV: comma separated, fields optionally enclosed in double
+ * quotes, {@code ""} as an escaped quote, line breaks allowed inside quoted fields. Records are read one
+ * at a time, so arbitrarily large files can be processed with constant memory.
+ */
+public final class CsvRecordReader {
+
+    private final Reader reader;
+    private int line = 1;
+    private int recordLine = 1;
+    private int pushedBack = -2;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return The fields of the next record, or null at the end of the input. Blank lines are skipped.
+     */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        recordLine = line;
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') unread(following);
+                }
+                line++;
+                if (fieldStarted || !field.isEmpty()) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                recordLine = line;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+        }
+        if (fieldStarted || !field.isEmpty()) {
+            fields.add(field.toString());
+            return fields;
+        }
+        return null;
+    }
+
+    /**
+     * @return The line number the record last returned by {@link #next()} starts on (1-based).
+     */
+    public int recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Formats one record, quoting fields that contain a comma, quote or line break.
+     */
+    public static String format(List<?> fields) {
+        StringBuilder record = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) record.append(',');
+            String value = fields.get(i) == null ? "" : fields.get(i).toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                record.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                record.append(value);
+            }
+        }
+        return record.toString();
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
@@ -0,0 +1,140 @@
+package com.project.Fashion.util;
+
+import com.project.Fashion.dto.KeysetSliceDto;
+import com.project.Fashion.exception.exceptions.InvalidFieldException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.util.StringUtils;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes and decodes the opaque {@code after} tokens used by keyset ("seek") pagination.
+ * <p>
+ * A cursor carries the sort property, the sort direction and the keyset values (sort key plus id)
+ * of the last row of the previous slice. Values are type-tagged so they can be bound back to the
+ * query with the same Java type as the entity attribute, which lets the database seek directly into
+ * the index instead of skipping {@code OFFSET n} rows.
+ */
+public final class KeysetCursor {
+
+    public static final int MAX_SLICE_SIZE = 100;
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+    }
+
+    /**
+     * The order of a keyset scroll: the sort property, then id as tie-breaker so the keyset is unique.
+     * Sorting by id alone is unique already.
+     */
+    public static Sort sort(String sortProperty, Sort.Direction direction) {
+        Sort sort = Sort.by(direction, sortProperty);
+        return "id".equals(sortProperty) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Builds the scroll position for the requested slice.
+     *
+     * @param after The cursor returned with the previous slice, or blank for the first slice.
+     * @param sortProperty The sort property of the current request; must match the cursor.
+     * @param direction The sort direction of the current request; must match the cursor.
+     */
+    public static KeysetScrollPosition positionAfter(String after, String sortProperty, Sort.Direction direction) {
+        if (!StringUtils.hasText(after)) {
+            return ScrollPosition.keyset();
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidFieldException("Malformed pagination cursor.");
+        }
+        String[] parts = decoded.split("\\" + SEPARATOR);
+        if (parts.length < 4 || !VERSION.equals(parts[0])) {
+            throw new InvalidFieldException("Malformed pagination cursor.");
+        }
+        if (!parts[1].equals(sortProperty) || !parts[2].equals(direction.name())) {
+            throw new InvalidFieldException("Pagination cursor was issued for a different sort order (" + parts[1] + " " + parts[2] + ").");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (int i = 3; i < parts.length; i++) {
+            int eq = parts[i].indexOf('=');
+            if (eq < 0) throw new InvalidFieldException("Malformed pagination cursor.");
+            keys.put(parts[i].substring(0, eq), decodeValue(parts[i].substring(eq + 1)));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Converts a window of entities into the API slice, mapping each element and encoding the
+     * position of the last element as the next cursor.
+     */
+    public static <T, R> KeysetSliceDto<R> toSlice(Window<T> window, Function<? super T, ? extends R> mapper,
+                                                  String sortProperty, Sort.Direction direction) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            ScrollPosition last = window.positionAt(window.size() - 1);
+            if (last instanceof KeysetScrollPosition keyset) {
+                nextCursor = encode(sortProperty, direction, keyset.getKeys());
+            }
+        }
+        return new KeysetSliceDto<>(
+                window.getContent().stream().<R>map(mapper).toList(),
+                window.size(),
+                window.hasNext(),
+                nextCursor);
+    }
+
+    static String encode(String sortProperty, Sort.Direction direction, Map<String, Object> keys) {
+        StringBuilder sb = new StringBuilder(VERSION)
+                .append(SEPARATOR).append(sortProperty)
+                .append(SEPARATOR).append(direction.name());
+        keys.forEach((key, value) -> sb.append(SEPARATOR).append(key).append('=').append(encodeValue(value)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) return "n:";
+        if (value instanceof Long l) return "l:" + l;
+        if (value instanceof Integer i) return "i:" + i;
+        if (value instanceof Float f) return "f:" + Float.floatToIntBits(f);
+        if (value instanceof Double d) return "d:" + Double.doubleToLongBits(d);
+        if (value instanceof Date date) return "t:" + date.getTime();
+        return "s:" + URLEncoder.encode(value.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static Object decodeValue(String encoded) {
+        if (encoded.length() < 2 || encoded.charAt(1) != ':') throw new InvalidFieldException("Malformed pagination cursor.");
+        String raw = encoded.substring(2);
+        try {
+            return switch (encoded.charAt(0)) {
+                case 'n' -> null;
+                case 'l' -> Long.parseLong(raw);
+                case 'i' -> Integer.parseInt(raw);
+                case 'f' -> Float.intBitsToFloat(Integer.parseInt(raw));
+                case 'd' -> Double.longBitsToDouble(Long.parseLong(raw));
+                case 't' -> new Date(Long.parseLong(raw));
+                case 's' -> URLDecoder.decode(raw, StandardCharsets.UTF_8);
+                default -> throw new InvalidFieldException("Malformed pagination cursor.");
+            };
+        } catch (NumberFormatException e) {
+            throw new InvalidFieldException("Malformed pagination cursor.");
+        }
+    }
+}
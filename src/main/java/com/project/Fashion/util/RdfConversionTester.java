@@ -33,11 +33,11 @@ public class RdfConversionTester implements CommandLineRunner {
     public void run(String... args) throws Exception {
         logger.info("--- Starting RDF Conversion Test and Store Population Runner ---");
 
-        // Step 1: Populate the application-wide RDF store from the database
+        // Step 1: Bring the application-wide RDF store up to date with the database
         try {
-            logger.info("Attempting to populate the application RDF store...");
-            rdfConversionService.populateRdfStoreFromDatabase();
-            logger.info("Finished populating application RDF store. Store size: {}", rdfConversionService.getApplicationRdfStore().size());
+            logger.info("Attempting to synchronize the application RDF store...");
+            rdfConversionService.synchronizeWithDatabase();
+            logger.info("Finished synchronizing application RDF store. Store size: {}", rdfConversionService.readStore(Model::size));
         } catch (Exception e) {
             logger.error("Error during RDF store population: {}", e.getMessage(), e);
         }
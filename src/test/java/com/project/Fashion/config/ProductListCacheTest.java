@@ -0,0 +1,116 @@
+package com.project.Fashion.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.Fashion.dto.ProductResponseDto;
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.service.ProductListQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductListCacheTest {
+
+    private static final ProductListQuery DRESSES = query("Dresses", null);
+    private static final ProductListQuery SHOES = query("Shoes", null);
+    private static final ProductListQuery EXPENSIVE = query(null, 100f);
+    private static final ProductListQuery ALL = query(null, null);
+
+    private ProductListCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductListCache("productsList", Caffeine.newBuilder());
+        cache.put(DRESSES, page(1L, 2L));
+        cache.put(SHOES, page(3L));
+        cache.put(EXPENSIVE, page(3L));
+        cache.put(ALL, page(1L, 2L, 3L));
+    }
+
+    @Test
+    void evictsPagesShowingTheProductAndLeavesUnaffectedOnes() {
+        ProductSnapshot before = product(1, "Linen dress", "Dresses", 40f);
+        int evicted = cache.evictAffectedBy(ProductChangedEvent.updated(before, product(1, "Linen dress", "Dresses", 45f)));
+
+        assertThat(evicted).isEqualTo(2);
+        assertThat(cache.get(DRESSES)).isNull();
+        assertThat(cache.get(ALL)).isNull();
+        assertThat(cache.get(SHOES)).isNotNull();
+        assertThat(cache.get(EXPENSIVE)).isNotNull();
+    }
+
+    @Test
+    void evictsFilteredPagesAProductEnters() {
+        ProductSnapshot created = product(4, "Leather boots", "Shoes", 150f);
+        cache.evictAffectedBy(ProductChangedEvent.created(created));
+
+        assertThat(cache.get(SHOES)).isNull();
+        assertThat(cache.get(EXPENSIVE)).isNull();
+        assertThat(cache.get(ALL)).isNull();
+        assertThat(cache.get(DRESSES)).isNotNull();
+    }
+
+    @Test
+    void evictsPagesOfTheOldAndNewCategory() {
+        ProductSnapshot before = product(5, "Canvas bag", "Dresses", 20f);
+        cache.evictAffectedBy(ProductChangedEvent.updated(before, product(5, "Canvas bag", "Shoes", 20f)));
+
+        assertThat(cache.get(DRESSES)).isNull();
+        assertThat(cache.get(SHOES)).isNull();
+        assertThat(cache.get(EXPENSIVE)).isNotNull();
+    }
+
+    @Test
+    void forgetsTagsOfEvictedPages() {
+        cache.evict(SHOES);
+        cache.put(SHOES, page(6L));
+
+        // Product 3 is no longer on the shoes page, so a change to it leaves that page alone.
+        cache.evictAffectedBy(ProductChangedEvent.updated(product(3, "Sandals", "Boots", 120f), product(3, "Sandals", "Boots", 130f)));
+
+        assertThat(cache.get(SHOES)).isNotNull();
+        assertThat(cache.get(EXPENSIVE)).isNull();
+    }
+
+    @Test
+    void loadsMissesOnTheCallingThreadAndTagsThePage() {
+        List<String> loadingThreads = new ArrayList<>();
+        ProductListCache loading = new ProductListCache("productsList", Caffeine.newBuilder(), key -> {
+            loadingThreads.add(Thread.currentThread().getName());
+            if (key == SHOES) throw new IllegalStateException("database down");
+            return page(1L);
+        });
+
+        assertThat(loading.get(DRESSES)).isNotNull();
+        assertThat(loading.get(DRESSES)).isNotNull();
+        assertThat(loadingThreads).containsExactly(Thread.currentThread().getName());
+        assertThatThrownBy(() -> loading.get(SHOES)).isInstanceOf(IllegalStateException.class);
+
+        ProductSnapshot dress = product(1, "Linen dress", "Dresses", 40f);
+        assertThat(loading.evictAffectedBy(ProductChangedEvent.updated(dress, product(1, "Silk dress", "Dresses", 40f)))).isEqualTo(1);
+    }
+
+    private static ProductListQuery query(String category, Float minPrice) {
+        return new ProductListQuery(0, 20, category, null, minPrice, null, null, null, "name", "asc");
+    }
+
+    private static ProductSnapshot product(long id, String name, String category, float price) {
+        return new ProductSnapshot(id, name, null, category, price, 0f, 0, "seller", null);
+    }
+
+    private static Page<ProductResponseDto> page(Long... ids) {
+        return new PageImpl<>(Arrays.stream(ids).map(id -> {
+            ProductResponseDto dto = new ProductResponseDto();
+            dto.setId(id);
+            return dto;
+        }).toList());
+    }
+}
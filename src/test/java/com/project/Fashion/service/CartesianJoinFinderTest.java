@@ -0,0 +1,48 @@
+package com.project.Fashion.service;
+
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CartesianJoinFinderTest {
+
+    @Test
+    void acceptsConnectedBasicGraphPattern() {
+        assertThat(find("?s a ?type . ?s ?p ?o . ?o ?q _:b . _:b ?r ?last")).isEmpty();
+        assertThat(find("<urn:a> <urn:p> <urn:b> . ?s ?p ?o")).isEmpty();
+    }
+
+    @Test
+    void findsDisjointTriplePatterns() {
+        assertThat(find("?s ?p ?o . ?a ?b ?c")).hasValueSatisfying(join -> assertThat(join).startsWith("triple patterns"));
+        assertThat(find("?s ?p _:x . _:y ?q ?o")).isPresent();
+    }
+
+    @Test
+    void findsDisjointGroupsAndOptionals() {
+        assertThat(find("?s ?p ?o OPTIONAL { ?a ?b ?c }")).hasValueSatisfying(join -> assertThat(join).startsWith("groups"));
+        assertThat(find("?s ?p ?o { ?a ?b ?c }")).isPresent();
+        assertThat(find("?s ?p ?o OPTIONAL { ?s ?b ?c }")).isEmpty();
+    }
+
+    @Test
+    void allowsSmallValuesTablesOnly() {
+        assertThat(find("VALUES ?x { 1 } ?s ?p ?o")).isEmpty();
+        assertThat(find("?s ?p ?o VALUES ?x { 1 2 3 }")).isEmpty();
+
+        String manyRows = IntStream.rangeClosed(0, CartesianJoinFinder.MAX_UNJOINED_TABLE_ROWS)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(" "));
+        assertThat(find("?s ?p ?o VALUES ?x { " + manyRows + " }")).isPresent();
+    }
+
+    private static Optional<String> find(String pattern) {
+        return CartesianJoinFinder.find(Algebra.compile(QueryFactory.create("SELECT * WHERE { " + pattern + " }").getQueryPattern()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.Fashion.service;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordIndexTest {
+
+    private static final String NAME = RdfConversionService.SCHEMA_name.getURI();
+    private static final String DESCRIPTION = RdfConversionService.SCHEMA_description.getURI();
+
+    @Test
+    void matchesTokenPrefixesInEitherField() {
+        KeywordIndex index = new KeywordIndex();
+        index.putAll(products(
+                product("urn:p:1", "Cotton T-Shirt", "Soft summer top"),
+                product("urn:p:2", "Linen dress", "Cool cotton blend")));
+
+        assertThat(index.search("cott", null)).containsExactlyInAnyOrder("urn:p:1", "urn:p:2");
+        assertThat(index.search("cott", NAME)).containsExactly("urn:p:1");
+        assertThat(index.search("t-sh", NAME)).containsExactly("urn:p:1");
+        assertThat(index.search("otton", null)).isEmpty();
+    }
+
+    @Test
+    void requiresEveryTokenWithinOneField() {
+        KeywordIndex index = new KeywordIndex();
+        index.putAll(products(product("urn:p:1", "Linen dress", "Cool cotton blend")));
+
+        assertThat(index.search("cotton blend", DESCRIPTION)).containsExactly("urn:p:1");
+        assertThat(index.search("linen cotton", null)).isEmpty();
+        assertThat(index.search("  ", null)).isEmpty();
+        assertThat(index.search("linen", "http://schema.org/brand")).isEmpty();
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        KeywordIndex index = new KeywordIndex();
+        index.putAll(products(product("urn:p:1", "Café Crème scarf", null)));
+
+        assertThat(index.search("cafe creme", NAME)).containsExactly("urn:p:1");
+        assertThat(index.search("CAFÉ", NAME)).containsExactly("urn:p:1");
+    }
+
+    @Test
+    void replacesAndRemovesProducts() {
+        KeywordIndex index = new KeywordIndex();
+        index.putAll(products(product("urn:p:1", "Wool coat", null), product("urn:p:2", "Wool hat", null)));
+        index.putAll(products(product("urn:p:1", "Denim jacket", null)));
+        index.remove("urn:p:2");
+
+        assertThat(index.search("wool", null)).isEmpty();
+        assertThat(index.search("denim", null)).containsExactly("urn:p:1");
+    }
+
+    @Test
+    void scanMatchesLikeTheIndex() {
+        Model store = products(
+                product("urn:p:1", "Cotton T-Shirt", "Soft summer top"),
+                product("urn:p:2", "Linen dress", "Cool cotton blend"),
+                product("urn:p:3", "Café scarf", null));
+        KeywordIndex index = new KeywordIndex();
+        index.putAll(store);
+
+        for (String keyword : new String[]{"cott", "t-sh", "otton", "cafe", "linen cotton", ""}) {
+            for (String property : new String[]{null, NAME, DESCRIPTION}) {
+                assertThat(KeywordIndex.scan(store, keyword, property)).as(keyword + " in " + property)
+                        .isEqualTo(index.search(keyword, property));
+            }
+        }
+    }
+
+    @Test
+    void incompleteIndexRecordsTouchedProductsForReindexing() {
+        KeywordIndex standIn = KeywordIndex.incomplete();
+        standIn.putAll(products(product("urn:p:1", "Denim jacket", null)));
+        standIn.remove("urn:p:2");
+        assertThat(standIn.isComplete()).isFalse();
+        assertThat(standIn.touched()).containsExactlyInAnyOrder("urn:p:1", "urn:p:2");
+
+        // Built from a snapshot taken before those writes.
+        KeywordIndex built = new KeywordIndex();
+        built.putAll(products(product("urn:p:1", "Wool coat", null), product("urn:p:2", "Wool hat", null)));
+        built.reindex(products(product("urn:p:1", "Denim jacket", null)), standIn.touched());
+
+        assertThat(built.isComplete()).isTrue();
+        assertThat(built.search("wool", null)).isEmpty();
+        assertThat(built.search("denim", null)).containsExactly("urn:p:1");
+    }
+
+    private static Model products(Model... products) {
+        Model model = ModelFactory.createDefaultModel();
+        for (Model product : products) model.add(product);
+        return model;
+    }
+
+    private static Model product(String uri, String name, String description) {
+        Model model = ModelFactory.createDefaultModel();
+        Resource product = model.createResource(uri).addProperty(RDF.type, RdfConversionService.SCHEMA_Product);
+        if (name != null) product.addProperty(RdfConversionService.SCHEMA_name, name);
+        if (description != null) product.addProperty(RdfConversionService.SCHEMA_description, description);
+        return model;
+    }
+}
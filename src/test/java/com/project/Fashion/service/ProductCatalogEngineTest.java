@@ -0,0 +1,96 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductCatalogEngineTest {
+
+    private static final ProductCatalogEngine.CatalogQuery ALL = new ProductCatalogEngine.CatalogQuery(null, null, null, null, null, null);
+
+    private ProductRepository productRepository;
+    private ProductCatalogEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        engine = new ProductCatalogEngine(productRepository);
+        ReflectionTestUtils.setField(engine, "enabled", true);
+    }
+
+    @Test
+    void sortsByPropertyWithIdAsTieBreaker() {
+        when(productRepository.findAllSnapshots()).thenReturn(List.of(
+                product(3, "b", 20f), product(1, "C", 10f), product(2, "a", 20f), product(4, "d", 5f)));
+        engine.loadFromDatabase();
+
+        assertThat(engine.findPage(ALL, "price", Sort.Direction.ASC, 0, 10).ids()).containsExactly(4L, 1L, 2L, 3L);
+        assertThat(engine.findPage(ALL, "price", Sort.Direction.DESC, 0, 10).ids()).containsExactly(3L, 2L, 1L, 4L);
+        assertThat(engine.findPage(ALL, "name", Sort.Direction.ASC, 1, 2).ids()).containsExactly(3L, 1L);
+        assertThat(engine.findPage(ALL, "id", Sort.Direction.ASC, 0, 10).ids()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(engine.findPage(ALL, "price", Sort.Direction.ASC, 0, 10).totalElements()).isEqualTo(4);
+    }
+
+    @Test
+    void publishesChangeBeforeTheListenerReturns() {
+        when(productRepository.findAllSnapshots()).thenReturn(List.of(product(1, "a", 10f), product(2, "b", 20f)));
+        engine.loadFromDatabase();
+
+        engine.onProductChanged(ProductChangedEvent.updated(product(1, "a", 10f), product(1, "a", 30f)));
+        engine.onProductChanged(ProductChangedEvent.created(product(3, "c", 15f)));
+
+        assertThat(engine.findPage(ALL, "price", Sort.Direction.ASC, 0, 10).ids()).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void concurrentWritersAllSeeTheirChangePublished() throws InterruptedException {
+        when(productRepository.findAllSnapshots()).thenReturn(List.of());
+        engine.loadFromDatabase();
+
+        List<Thread> writers = new ArrayList<>();
+        List<Long> unpublished = Collections.synchronizedList(new ArrayList<>());
+        for (long id = 1; id <= 8; id++) {
+            long productId = id;
+            writers.add(new Thread(() -> {
+                engine.onProductChanged(ProductChangedEvent.created(product(productId, "p" + productId, productId)));
+                if (!engine.findIds(ALL).contains(productId)) unpublished.add(productId);
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) writer.join();
+
+        assertThat(unpublished).isEmpty();
+        assertThat(engine.findIds(ALL)).hasSize(8);
+    }
+
+    @Test
+    void replaysChangesCommittedDuringLoad() {
+        // The snapshot was read before the change committed, so it still has the old price.
+        when(productRepository.findAllSnapshots()).thenAnswer(invocation -> {
+            engine.onProductChanged(ProductChangedEvent.updated(product(1, "a", 10f), product(1, "a", 99f)));
+            engine.onProductChanged(ProductChangedEvent.deleted(product(2, "b", 20f)));
+            return List.of(product(1, "a", 10f), product(2, "b", 20f));
+        });
+        engine.loadFromDatabase();
+
+        ProductCatalogEngine.CatalogQuery expensive = new ProductCatalogEngine.CatalogQuery(null, 50f, null, null, null, null);
+        assertThat(engine.findIds(expensive)).containsExactly(1L);
+        assertThat(engine.findIds(ALL)).containsExactly(1L);
+    }
+
+    private static ProductSnapshot product(long id, String name, float price) {
+        return new ProductSnapshot(id, name, null, "Dresses", price, 0f, 0, "seller", null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.model.ProductSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductListQueryTest {
+
+    private static final ProductSnapshot DRESS = product(1, "Linen dress", "Dresses", 40f, 4f, 2);
+
+    @Test
+    void newOrDeletedProductAffectsOnlyPagesItMatches() {
+        ProductListQuery dresses = query("Dresses", null, null, "name");
+        ProductListQuery shoes = query("Shoes", null, null, "name");
+
+        assertThat(dresses.isAffectedBy(null, DRESS)).isTrue();
+        assertThat(dresses.isAffectedBy(DRESS, null)).isTrue();
+        assertThat(shoes.isAffectedBy(null, DRESS)).isFalse();
+        assertThat(query(null, 50f, null, "name").isAffectedBy(null, DRESS)).isFalse();
+    }
+
+    @Test
+    void productMovingAcrossAFilterAffectsThePage() {
+        ProductListQuery cheap = query(null, null, 50f, "name");
+
+        assertThat(cheap.isAffectedBy(DRESS, withPrice(DRESS, 60f))).isTrue();
+        assertThat(query("Shoes", null, null, "name").isAffectedBy(DRESS, withCategory(DRESS, "Shoes"))).isTrue();
+        assertThat(query(null, 100f, null, "name").isAffectedBy(DRESS, withPrice(DRESS, 60f))).isFalse();
+    }
+
+    @Test
+    void changeToTheSortKeyOrAFacetAffectsPagesThatMatch() {
+        ProductListQuery byName = query("Dresses", null, null, "name");
+        ProductListQuery byId = query("Dresses", null, null, "id");
+        ProductSnapshot renamed = product(1, "Silk dress", "Dresses", 40f, 4f, 2);
+
+        assertThat(byName.isAffectedBy(DRESS, renamed)).isTrue();
+        assertThat(byId.isAffectedBy(DRESS, renamed)).isFalse();
+        // Price is both a facet and, here, not the sort key.
+        assertThat(byId.isAffectedBy(DRESS, withPrice(DRESS, 30f))).isTrue();
+    }
+
+    @Test
+    void unrelatedFieldChangeDoesNotAffectThePage() {
+        ProductSnapshot newPhoto = new ProductSnapshot(1L, "Linen dress", "Light", "Dresses", 40f, 4f, 2, "seller", "new.png");
+
+        assertThat(query("Dresses", null, null, "name").isAffectedBy(DRESS, newPhoto)).isFalse();
+    }
+
+    @Test
+    void searchTermMatchesLikeEitherSearchPath() {
+        ProductListQuery search = new ProductListQuery(0, 20, null, "line", null, null, null, null, "name", "asc");
+        ProductListQuery tokens = new ProductListQuery(0, 20, null, "dresses linen", null, null, null, null, "name", "asc");
+
+        assertThat(search.matches(DRESS)).isTrue();
+        assertThat(tokens.matches(DRESS)).isTrue();
+        assertThat(search.matches(product(2, "Wool coat", "Coats", 90f, 0f, 0))).isFalse();
+    }
+
+    @Test
+    void noReviewsFilterIgnoresMinimumRating() {
+        ProductListQuery unreviewed = new ProductListQuery(0, 20, null, null, null, null, 3f, true, "name", "asc");
+
+        assertThat(unreviewed.matches(product(2, "Wool coat", "Coats", 90f, 0f, 0))).isTrue();
+        assertThat(unreviewed.matches(DRESS)).isFalse();
+    }
+
+    private static ProductListQuery query(String category, Float minPrice, Float maxPrice, String sortBy) {
+        return new ProductListQuery(0, 20, category, null, minPrice, maxPrice, null, null, sortBy, "asc");
+    }
+
+    private static ProductSnapshot product(long id, String name, String category, float price, float rating, int reviews) {
+        return new ProductSnapshot(id, name, "Light", category, price, rating, reviews, "seller", null);
+    }
+
+    private static ProductSnapshot withPrice(ProductSnapshot p, float price) {
+        return new ProductSnapshot(p.id(), p.name(), p.description(), p.category(), price, p.averageRating(), p.numOfReviews(), p.sellerId(), p.photoUrl());
+    }
+
+    private static ProductSnapshot withCategory(ProductSnapshot p, String category) {
+        return new ProductSnapshot(p.id(), p.name(), p.description(), category, p.price(), p.averageRating(), p.numOfReviews(), p.sellerId(), p.photoUrl());
+    }
+}
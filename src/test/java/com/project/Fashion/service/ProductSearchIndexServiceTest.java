@@ -0,0 +1,60 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexServiceTest {
+
+    private ProductRepository productRepository;
+    private ProductSearchIndexService index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        index = new ProductSearchIndexService(productRepository);
+    }
+
+    @Test
+    void matchesEveryTokenAndRanksNameHitsFirst() {
+        when(productRepository.findAllSnapshots()).thenReturn(List.of(
+                product(1, "Linen shirt", "Light summer wear"),
+                product(2, "Summer dress", "A linen dress"),
+                product(3, "Wool coat", "Warm")));
+        index.loadFromDatabase();
+
+        assertThat(index.search("linen").keySet()).containsExactly(1L, 2L);
+        assertThat(index.search("summer linen").keySet()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("dre").keySet()).containsExactly(2L);
+        assertThat(index.search("linen coat")).isEmpty();
+    }
+
+    @Test
+    void keepsChangesCommittedWhileLoading() {
+        // The snapshot was read before these changes committed.
+        when(productRepository.findAllSnapshots()).thenAnswer(invocation -> {
+            index.onProductChanged(ProductChangedEvent.updated(product(1, "Linen shirt", null), product(1, "Denim jacket", null)));
+            index.onProductChanged(ProductChangedEvent.created(product(3, "Silk scarf", null)));
+            index.onProductChanged(ProductChangedEvent.deleted(product(2, "Linen dress", null)));
+            return List.of(product(1, "Linen shirt", null), product(2, "Linen dress", null));
+        });
+        index.loadFromDatabase();
+
+        assertThat(index.search("linen")).isEmpty();
+        assertThat(index.search("denim").keySet()).containsExactly(1L);
+        assertThat(index.search("silk").keySet()).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    private static ProductSnapshot product(long id, String name, String description) {
+        return new ProductSnapshot(id, name, description, "Clothing", 10f, 0f, 0, "seller", null);
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.dto.ProductSuggestionDto;
+import com.project.Fashion.event.ProductChangedEvent;
+import com.project.Fashion.event.ProductsImportedEvent;
+import com.project.Fashion.model.ProductSnapshot;
+import com.project.Fashion.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestServiceTest {
+
+    private ProductRepository productRepository;
+    private ProductSuggestService suggestions;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        suggestions = new ProductSuggestService(productRepository);
+    }
+
+    @Test
+    void suggestsPrefixAndMisspelledMatches() {
+        when(productRepository.findAllSnapshots()).thenReturn(List.of(
+                product(1, "Linen shirt", "Shirts"),
+                product(2, "Summer dress", "Dresses")));
+        suggestions.loadFromDatabase();
+
+        assertThat(productIds("lin")).containsExactly(1L);
+        assertThat(productIds("sumer")).containsExactly(2L);
+        assertThat(suggestions.suggest("dre", 8)).first()
+                .extracting(ProductSuggestionDto::getType).isEqualTo("CATEGORY");
+    }
+
+    @Test
+    void keepsChangesCommittedWhileLoading() {
+        // The snapshot was read before these changes committed.
+        when(productRepository.findAllSnapshots()).thenAnswer(invocation -> {
+            suggestions.onProductChanged(ProductChangedEvent.updated(product(1, "Linen shirt", "Shirts"), product(1, "Denim jacket", "Jackets")));
+            suggestions.onProductChanged(ProductChangedEvent.deleted(product(2, "Linen dress", "Dresses")));
+            suggestions.onProductsImported(new ProductsImportedEvent("seller", List.of(product(3, "Silk scarf", "Accessories"))));
+            return List.of(product(1, "Linen shirt", "Shirts"), product(2, "Linen dress", "Dresses"));
+        });
+        suggestions.loadFromDatabase();
+
+        assertThat(productIds("linen")).isEmpty();
+        assertThat(productIds("denim")).containsExactly(1L);
+        assertThat(productIds("silk")).containsExactly(3L);
+        assertThat(suggestions.suggest("shirts", 8)).isEmpty();
+    }
+
+    private List<Long> productIds(String query) {
+        return suggestions.suggest(query, 8).stream()
+                .filter(suggestion -> "PRODUCT".equals(suggestion.getType()))
+                .map(ProductSuggestionDto::getProductId)
+                .toList();
+    }
+
+    private static ProductSnapshot product(long id, String name, String category) {
+        return new ProductSnapshot(id, name, null, category, 10f, 0f, 0, "seller", null);
+    }
+}
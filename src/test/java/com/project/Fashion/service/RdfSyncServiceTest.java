@@ -0,0 +1,96 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.model.Product;
+import com.project.Fashion.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RdfSyncServiceTest {
+
+    private static final long BROKEN_PRODUCT = 2L;
+
+    private final List<Long> applied = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private RdfSyncService sync;
+
+    @BeforeEach
+    void setUp() {
+        RdfConversionService rdfConversionService = mock(RdfConversionService.class);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Product> products = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                Product product = new Product();
+                product.setId(id);
+                products.add(product);
+            }
+            return products;
+        });
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.stream().anyMatch(product -> product.getId() == BROKEN_PRODUCT)) {
+                throw new IllegalStateException("cannot convert product " + BROKEN_PRODUCT);
+            }
+            products.forEach(product -> applied.add(product.getId()));
+            return null;
+        }).when(rdfConversionService).applyProductChanges(anyList(), anyCollection());
+        meterRegistry = new SimpleMeterRegistry();
+        // The worker is not started; batches are applied by calling applyNextBatch directly.
+        sync = new RdfSyncService(rdfConversionService, productRepository, mock(PlatformTransactionManager.class),
+                meterRegistry, 100, 200, Duration.ZERO);
+    }
+
+    @Test
+    void appliesTheRestOfAFailedBatchAndDropsAProductThatKeepsFailing() {
+        sync.enqueue(List.of(1L, BROKEN_PRODUCT, 3L));
+        applyNextBatch();
+        assertThat(applied).containsExactly(1L, 3L);
+        assertThat(queueSize()).isEqualTo(1);
+
+        sync.enqueue(List.of(4L));
+        applyNextBatch();
+        sync.enqueue(List.of(5L));
+        applyNextBatch();
+
+        assertThat(applied).containsExactly(1L, 3L, 4L, 5L);
+        assertThat(queueSize()).isZero();
+        assertThat(meterRegistry.get("rdf.sync.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("rdf.sync.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    void keepsAFailedProductQueuedAheadOfNewerChanges() {
+        sync.enqueue(List.of(BROKEN_PRODUCT, 1L));
+        applyNextBatch();
+        sync.enqueue(List.of(3L));
+
+        @SuppressWarnings("unchecked")
+        Map<Long, Long> pending = (Map<Long, Long>) ReflectionTestUtils.getField(sync, "pending");
+        assertThat(pending.keySet()).containsExactly(BROKEN_PRODUCT, 3L);
+        assertThat(meterRegistry.get("rdf.sync.dropped").counter().count()).isZero();
+    }
+
+    private void applyNextBatch() {
+        ReflectionTestUtils.invokeMethod(sync, "applyNextBatch");
+    }
+
+    private int queueSize() {
+        return (int) meterRegistry.get("rdf.sync.queue.size").gauge().value();
+    }
+}
@@ -0,0 +1,136 @@
+package com.project.Fashion.service;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.pfunction.PropertyFunctionRegistry;
+import org.apache.jena.vocabulary.RDF;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares the CPU cost per semantic search of formatting, parsing and optimizing the query on every
+ * call against running a {@link PreparedSparqlQuery}. The query is the one
+ * {@link SparqlQueryService#searchProductsSemantic} runs for a category and a keyword: unsorted, keyword
+ * match first, every row read. Not a test; run it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.project.Fashion.service.SemanticSearchBenchmark}
+ * or from the IDE. Optional arguments: number of products (default 500), iterations (default 5000).
+ */
+public class SemanticSearchBenchmark {
+
+    private static final String FASH = "http://fashion.example.com/ontology#";
+    private static final String DATA = "http://fashion.example.com/data/";
+    private static final String[] CATEGORIES = {"Dresses", "Shoes", "Bags", "Jackets", "Accessories"};
+
+    private static final String QUERY = "PREFIX fash: <" + FASH + "> PREFIX schema: <" + RdfConversionService.SCHEMA_NS + "> " +
+            "SELECT ?product ?productName ?description ?price ?rating WHERE { \n" +
+            "  ?product fash:" + KeywordMatchPropertyFunction.LOCAL_NAME + " (?keyword schema:description) . \n" +
+            "  ?product a fash:FashionProduct . \n" +
+            "  OPTIONAL { ?product schema:name ?productName . } \n" +
+            "  OPTIONAL { ?product schema:description ?description . } \n" +
+            "  ?product fash:belongsToCategory ?categoryResource . \n" +
+            "  ?categoryResource schema:name ?catName . \n" +
+            "  FILTER (lcase(str(?catName)) = ?category) \n" +
+            "  OPTIONAL { ?product fash:hasPrice ?price . } \n" +
+            "  OPTIONAL { ?product fash:averageRatingValue ?rating . } \n" +
+            "}";
+
+    public static void main(String[] args) {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        Model model = catalog(products);
+        KeywordIndex keywordIndex = new KeywordIndex();
+        keywordIndex.putAll(model);
+        PropertyFunctionRegistry.get().put(FASH + KeywordMatchPropertyFunction.LOCAL_NAME,
+                uri -> new KeywordMatchPropertyFunction(() -> keywordIndex));
+
+        PreparedSparqlQuery prepared = new PreparedSparqlQuery(QUERY);
+
+        IntSupplier perCall = new IntSupplier() {
+            int i;
+
+            @Override
+            public int getAsInt() {
+                String category = CATEGORIES[i++ % CATEGORIES.length];
+                return formattedSearch(model, category.toLowerCase(), "soft");
+            }
+        };
+        IntSupplier preparedCall = new IntSupplier() {
+            int i;
+
+            @Override
+            public int getAsInt() {
+                String category = CATEGORIES[i++ % CATEGORIES.length];
+                return prepared.execute(model, Map.of("category", category.toLowerCase(), "keyword", "soft"), Query.NOLIMIT, 0).size();
+            }
+        };
+
+        if (perCall.getAsInt() != preparedCall.getAsInt()) {
+            throw new IllegalStateException("Both variants must return the same rows");
+        }
+        System.out.printf("%d products, %d iterations%n", products, iterations);
+        for (int round = 1; round <= 3; round++) {
+            double formatted = cpuMicrosPerCall(perCall, iterations);
+            double compiled = cpuMicrosPerCall(preparedCall, iterations);
+            System.out.printf("round %d: parse per call %.1f us, prepared %.1f us, saving %.0f%%%n",
+                    round, formatted, compiled, 100 * (1 - compiled / formatted));
+        }
+    }
+
+    private static int formattedSearch(Model model, String category, String keyword) {
+        String query = QUERY.replaceAll("\\?category\\b", "\"" + category + "\"").replaceAll("\\?keyword\\b", "\"" + keyword + "\"");
+        int rows = 0;
+        try (QueryExecution execution = QueryExecutionFactory.create(query, model)) {
+            ResultSet results = execution.execSelect();
+            while (results.hasNext()) {
+                QuerySolution ignored = results.nextSolution();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static double cpuMicrosPerCall(IntSupplier call, int iterations) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < iterations / 5; i++) call.getAsInt();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) call.getAsInt();
+        return (threads.getCurrentThreadCpuTime() - start) / 1000.0 / iterations;
+    }
+
+    private static Model catalog(int products) {
+        Model model = ModelFactory.createDefaultModel();
+        Resource productClass = model.createResource(FASH + "FashionProduct");
+        Property belongsTo = model.createProperty(FASH + "belongsToCategory");
+        Property hasPrice = model.createProperty(FASH + "hasPrice");
+        Property averageRating = model.createProperty(FASH + "averageRatingValue");
+        List<String> adjectives = List.of("soft", "warm", "light", "classic", "bold");
+        for (int i = 0; i < products; i++) {
+            String category = CATEGORIES[i % CATEGORIES.length];
+            Resource categoryResource = model.createResource(DATA + "category/" + category.toLowerCase())
+                    .addProperty(RDF.type, model.createResource(FASH + "Category"))
+                    .addProperty(RdfConversionService.SCHEMA_name, category, XSDDatatype.XSDstring);
+            model.createResource(DATA + "product/" + i)
+                    .addProperty(RDF.type, productClass)
+                    .addProperty(RDF.type, RdfConversionService.SCHEMA_Product)
+                    .addProperty(RdfConversionService.SCHEMA_name, "Product " + i, XSDDatatype.XSDstring)
+                    .addProperty(RdfConversionService.SCHEMA_description,
+                            "A " + adjectives.get(i % adjectives.size()) + " " + category.toLowerCase() + " item", XSDDatatype.XSDstring)
+                    .addProperty(belongsTo, categoryResource)
+                    .addLiteral(hasPrice, 10.0 + i % 90)
+                    .addLiteral(averageRating, (double) (i % 5 + 1));
+        }
+        return model;
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.Fashion.service;
+
+import com.project.Fashion.config.RdfConfigProperties;
+import com.project.Fashion.exception.exceptions.InvalidFieldException;
+import com.project.Fashion.exception.exceptions.SparqlQueryRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.jena.query.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SparqlQueryServiceTest {
+
+    private static final String CROSS_JOIN = "SELECT * WHERE { ?s ?p ?o . ?a ?b ?c }";
+
+    private SparqlQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SparqlQueryService(mock(RdfConversionService.class), new RdfConfigProperties(),
+                new ConcurrentMapCacheManager(), new SimpleMeterRegistry(),
+                Duration.ofMillis(5), Duration.ofSeconds(10), Duration.ofSeconds(2), 100);
+    }
+
+    @Test
+    void capsTheLimitAtTheMaximumRows() {
+        assertThat(service.parseQuery("SELECT * WHERE { ?s ?p ?o }").getLimit()).isEqualTo(100);
+        assertThat(service.parseQuery("SELECT * WHERE { ?s ?p ?o } LIMIT 5000").getLimit()).isEqualTo(100);
+        assertThat(service.parseQuery("SELECT * WHERE { ?s ?p ?o } LIMIT 20").getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void allowsCartesianJoinsThatALimitStopsEarly() {
+        Query query = service.parseQuery(CROSS_JOIN + " LIMIT 10");
+        assertThat(query.getLimit()).isEqualTo(10);
+        assertThat(service.parseQuery("ASK { ?s ?p ?o . ?a ?b ?c }").isAskType()).isTrue();
+    }
+
+    @Test
+    void rejectsCartesianJoinsThatMustBeReadInFull() {
+        assertThatThrownBy(() -> service.parseQuery(CROSS_JOIN)).isInstanceOf(SparqlQueryRejectedException.class);
+        assertThatThrownBy(() -> service.parseQuery(CROSS_JOIN + " ORDER BY ?s LIMIT 10"))
+                .isInstanceOf(SparqlQueryRejectedException.class);
+        assertThatThrownBy(() -> service.parseQuery("SELECT ?s (COUNT(*) AS ?n) WHERE { ?s ?p ?o . ?a ?b ?c } GROUP BY ?s LIMIT 10"))
+                .isInstanceOf(SparqlQueryRejectedException.class);
+    }
+
+    @Test
+    void rejectsInvalidQueryText() {
+        assertThatThrownBy(() -> service.parseQuery("SELECT WHERE")).isInstanceOf(InvalidFieldException.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.Fashion.service;
+
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SparqlResultFormatTest {
+
+    private static final Query SELECT = QueryFactory.create("SELECT * WHERE { ?s ?p ?o }");
+    private static final Query ASK = QueryFactory.create("ASK { ?s ?p ?o }");
+    private static final Query CONSTRUCT = QueryFactory.create("CONSTRUCT WHERE { ?s ?p ?o }");
+    private static final Query DESCRIBE = QueryFactory.create("DESCRIBE <urn:a>");
+
+    @Test
+    void defaultsToTheFirstFormatForTheQueryForm() {
+        assertThat(negotiate(SELECT, "")).contains(SparqlResultFormat.JSON);
+        assertThat(negotiate(ASK, "*/*")).contains(SparqlResultFormat.JSON);
+        assertThat(negotiate(CONSTRUCT, "")).contains(SparqlResultFormat.N_TRIPLES);
+        assertThat(negotiate(DESCRIBE, "*/*")).contains(SparqlResultFormat.N_TRIPLES);
+    }
+
+    @Test
+    void picksTheRequestedFormat() {
+        assertThat(negotiate(SELECT, "text/csv")).contains(SparqlResultFormat.CSV);
+        assertThat(negotiate(SELECT, "text/tab-separated-values")).contains(SparqlResultFormat.TSV);
+        assertThat(negotiate(SELECT, "application/json")).contains(SparqlResultFormat.JSON);
+        assertThat(negotiate(CONSTRUCT, "text/plain")).contains(SparqlResultFormat.N_TRIPLES);
+    }
+
+    @Test
+    void honoursQualityValuesAndSpecificity() {
+        assertThat(negotiate(SELECT, "application/sparql-results+json;q=0.5, text/csv")).contains(SparqlResultFormat.CSV);
+        assertThat(negotiate(SELECT, "text/*, text/tab-separated-values")).contains(SparqlResultFormat.TSV);
+        assertThat(negotiate(SELECT, "text/csv;q=0, text/*")).contains(SparqlResultFormat.TSV);
+        assertThat(negotiate(SELECT, "*/*;q=0, text/csv")).contains(SparqlResultFormat.CSV);
+    }
+
+    @Test
+    void findsNothingWhenNoAcceptedTypeFitsTheQueryForm() {
+        assertThat(negotiate(SELECT, "application/n-triples")).isEmpty();
+        assertThat(negotiate(CONSTRUCT, "text/csv")).isEmpty();
+        assertThat(negotiate(SELECT, "image/png")).isEmpty();
+        assertThat(negotiate(SELECT, "*/*;q=0")).isEmpty();
+    }
+
+    private static Optional<SparqlResultFormat> negotiate(Query query, String accept) {
+        List<MediaType> accepted = accept.isEmpty() ? List.of() : MediaType.parseMediaTypes(accept);
+        return SparqlResultFormat.negotiate(query, accepted);
+    }
+}
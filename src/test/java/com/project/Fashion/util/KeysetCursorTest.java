@@ -0,0 +1,82 @@
+package com.project.Fashion.util;
+
+import com.project.Fashion.exception.exceptions.InvalidFieldException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("name", "Café | 50% = off");
+        keys.put("price", 19.99f);
+        keys.put("averageRating", 4.25d);
+        keys.put("stock", 3);
+        keys.put("date", new Date(1_700_000_000_000L));
+        keys.put("id", 42L);
+
+        KeysetScrollPosition position = roundTrip("name", Sort.Direction.ASC, keys);
+
+        assertThat(position.getKeys()).containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void keepsNullKeys() {
+        Map<String, Object> keys = new HashMap<>();
+        keys.put("averageRating", null);
+        keys.put("id", 7L);
+
+        KeysetScrollPosition position = roundTrip("averageRating", Sort.Direction.DESC, keys);
+
+        assertThat(position.getKeys()).containsEntry("averageRating", null).containsEntry("id", 7L).hasSize(2);
+    }
+
+    @Test
+    void startsAtTheBeginningWithoutACursor() {
+        assertThat(KeysetCursor.positionAfter(null, "price", Sort.Direction.ASC).isInitial()).isTrue();
+        assertThat(KeysetCursor.positionAfter(" ", "price", Sort.Direction.ASC).isInitial()).isTrue();
+    }
+
+    @Test
+    void rejectsCursorsForAnotherSortOrder() {
+        String cursor = KeysetCursor.encode("price", Sort.Direction.ASC, Map.of("price", 10f, "id", 1L));
+
+        assertThatThrownBy(() -> KeysetCursor.positionAfter(cursor, "name", Sort.Direction.ASC)).isInstanceOf(InvalidFieldException.class);
+        assertThatThrownBy(() -> KeysetCursor.positionAfter(cursor, "price", Sort.Direction.DESC)).isInstanceOf(InvalidFieldException.class);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String cursor : new String[]{"not base64!", encoded("v1|price|ASC"), encoded("v0|price|ASC|id=l:1"),
+                encoded("v1|price|ASC|id"), encoded("v1|price|ASC|id=l:x"), encoded("v1|price|ASC|id=q:1")}) {
+            assertThatThrownBy(() -> KeysetCursor.positionAfter(cursor, "price", Sort.Direction.ASC))
+                    .as(cursor).isInstanceOf(InvalidFieldException.class);
+        }
+    }
+
+    @Test
+    void addsIdAsTieBreakerUnlessSortingById() {
+        assertThat(KeysetCursor.sort("price", Sort.Direction.DESC))
+                .containsExactly(Sort.Order.desc("price"), Sort.Order.desc("id"));
+        assertThat(KeysetCursor.sort("id", Sort.Direction.ASC)).containsExactly(Sort.Order.asc("id"));
+    }
+
+    private static KeysetScrollPosition roundTrip(String sortProperty, Sort.Direction direction, Map<String, Object> keys) {
+        return KeysetCursor.positionAfter(KeysetCursor.encode(sortProperty, direction, keys), sortProperty, direction);
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+    }
+}